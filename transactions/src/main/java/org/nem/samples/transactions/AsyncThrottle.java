@@ -0,0 +1,114 @@
+package org.nem.samples.transactions;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.function.Function;
+
+/**
+ * Maps items to asynchronous operations with at most a fixed number of operations in flight.
+ * <br>
+ * No thread is ever blocked: the next item is started from the completion of a previous operation.
+ */
+class AsyncThrottle<T, R> {
+	private final List<T> items;
+	private final Function<T, CompletableFuture<R>> operation;
+	private final AtomicReferenceArray<R> results;
+	private final AtomicInteger nextIndex = new AtomicInteger();
+	private final AtomicInteger numRemaining;
+	private final AtomicReference<Throwable> firstError = new AtomicReference<>();
+	private final CompletableFuture<List<R>> future = new CompletableFuture<>();
+
+	private AsyncThrottle(final List<T> items, final Function<T, CompletableFuture<R>> operation) {
+		this.items = items;
+		this.operation = operation;
+		this.results = new AtomicReferenceArray<>(items.size());
+		this.numRemaining = new AtomicInteger(items.size());
+	}
+
+	/**
+	 * Starts an operation for every item.
+	 *
+	 * @param items The items.
+	 * @param maxConcurrentOperations The maximum number of operations in flight.
+	 * @param operation The operation.
+	 * @param <T> The type of the items.
+	 * @param <R> The type of the results.
+	 * @return The future results, in the same order as the items. If any operation failed, the future completes
+	 * exceptionally with the first error after all operations finished.
+	 */
+	public static <T, R> CompletableFuture<List<R>> mapAll(
+			final List<T> items,
+			final int maxConcurrentOperations,
+			final Function<T, CompletableFuture<R>> operation) {
+		if (maxConcurrentOperations < 1) {
+			throw new IllegalArgumentException("max concurrent operations must be positive");
+		}
+
+		final AsyncThrottle<T, R> throttle = new AsyncThrottle<>(new ArrayList<>(items), operation);
+		if (items.isEmpty()) {
+			throttle.future.complete(new ArrayList<>());
+		}
+
+		for (int i = 0; i < Math.min(maxConcurrentOperations, items.size()); ++i) {
+			throttle.startNext();
+		}
+
+		return throttle.future;
+	}
+
+	private void startNext() {
+		// operations that complete synchronously are handled in the loop to keep the stack flat
+		while (true) {
+			final int index = this.nextIndex.getAndIncrement();
+			if (index >= this.items.size()) {
+				return;
+			}
+
+			final CompletableFuture<R> operationFuture = this.start(this.items.get(index));
+			if (!operationFuture.isDone()) {
+				operationFuture.whenComplete((result, e) -> {
+					this.finish(index, result, e);
+					this.startNext();
+				});
+				return;
+			}
+
+			operationFuture.whenComplete((result, e) -> this.finish(index, result, e));
+		}
+	}
+
+	private CompletableFuture<R> start(final T item) {
+		try {
+			return this.operation.apply(item);
+		} catch (final RuntimeException e) {
+			final CompletableFuture<R> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
+
+	private void finish(final int index, final R result, final Throwable e) {
+		if (null == e) {
+			this.results.set(index, result);
+		} else {
+			this.firstError.compareAndSet(null, e instanceof CompletionException ? e.getCause() : e);
+		}
+
+		if (0 != this.numRemaining.decrementAndGet()) {
+			return;
+		}
+
+		if (null != this.firstError.get()) {
+			this.future.completeExceptionally(this.firstError.get());
+			return;
+		}
+
+		final List<R> resultList = new ArrayList<>(this.results.length());
+		for (int i = 0; i < this.results.length(); ++i) {
+			resultList.add(this.results.get(i));
+		}
+
+		this.future.complete(resultList);
+	}
+}
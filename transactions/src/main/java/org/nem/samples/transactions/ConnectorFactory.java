@@ -5,8 +5,13 @@ import org.nem.core.connect.client.*;
 import org.nem.core.model.Account;
 import org.nem.core.node.ApiId;
 
+import java.io.*;
+
 /**
  * A simple NIS connector.
+ * <br>
+ * If the JVM is run with -Dnem.samples.captureFile=&lt;file&gt;, all requests sent through the connector are
+ * recorded together with their responses and timings into the given trace file (see TraceReplay).
  */
 public class ConnectorFactory {
 	private static final HttpMethodClient<ErrorResponseDeserializerUnion> CLIENT = createHttpMethodClient();
@@ -23,6 +28,30 @@ public class ConnectorFactory {
 		final int connectionTimeout = 4000;
 		final int socketTimeout = 10000;
 		final int requestTimeout = 30000;
-		return new HttpMethodClient<>(connectionTimeout, socketTimeout, requestTimeout);
+		final String captureFile = System.getProperty("nem.samples.captureFile");
+		if (null == captureFile) {
+			return new HttpMethodClient<>(connectionTimeout, socketTimeout, requestTimeout);
+		}
+
+		final TraceWriter writer = createTraceWriter(new File(captureFile));
+		return new RecordingHttpMethodClient<>(writer, connectionTimeout, socketTimeout, requestTimeout);
+	}
+
+	private static TraceWriter createTraceWriter(final File file) {
+		try {
+			final TraceWriter writer = new TraceWriter(file);
+
+			// the samples end with System.exit, so the trace is closed by a shutdown hook
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					writer.close();
+				} catch (final IOException e) {
+					// nothing to do when shutting down
+				}
+			}));
+			return writer;
+		} catch (final IOException e) {
+			throw new RuntimeException(String.format("could not create trace file %s", file), e);
+		}
 	}
 }
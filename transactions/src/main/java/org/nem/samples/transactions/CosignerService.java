@@ -0,0 +1,26 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.Hash;
+import org.nem.core.model.*;
+import org.nem.core.time.TimeInstant;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A service holding the key of one cosignatory of a multisig account.
+ */
+public interface CosignerService {
+
+	/**
+	 * Creates a signed cosignature for a multisig transaction.
+	 *
+	 * @param multisig The multisig account.
+	 * @param innerTransactionHash The hash of the transaction wrapped by the multisig transaction.
+	 * @param timeInstant The time instant of the cosignature.
+	 * @return The future signed cosignature.
+	 */
+	CompletableFuture<MultisigSignatureTransaction> cosign(
+			final Account multisig,
+			final Hash innerTransactionHash,
+			final TimeInstant timeInstant);
+}
@@ -0,0 +1,77 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.*;
+import org.nem.core.model.Account;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Helper for shortening the start up time of the samples.
+ * <br>
+ * Fast start mode is enabled by running the JVM with -Dnem.samples.fastStart=true.
+ * In fast start mode the connector is created in the background and the accounts are derived in parallel,
+ * so that neither blocks class initialization of the samples.
+ * Without it, the accounts are derived on the calling thread and the connector is created on first use.
+ */
+public class FastStart {
+	private static final Logger LOGGER = Logger.getLogger(FastStart.class.getName());
+	private static final boolean ENABLED = Boolean.getBoolean("nem.samples.fastStart");
+
+	/**
+	 * Gets a value indicating whether or not fast start mode is enabled.
+	 *
+	 * @return true if fast start mode is enabled, false otherwise.
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * Starts creating the connector in the background if fast start mode is enabled.
+	 * The default network must be set before calling this method.
+	 */
+	public static void start() {
+		if (ENABLED) {
+			Globals.startConnector(true).whenComplete((connector, e) -> {
+				if (null != e) {
+					LOGGER.warning(String.format("could not create connector, reason: %s", e.getMessage()));
+				}
+			});
+		}
+	}
+
+	/**
+	 * Derives an account from a private key.
+	 *
+	 * @param privateKeyHex The private key as hex string.
+	 * @return The future account.
+	 */
+	public static CompletableFuture<Account> deriveAccount(final String privateKeyHex) {
+		return deriveAccounts(Collections.singletonList(privateKeyHex)).thenApply(accounts -> accounts.get(0));
+	}
+
+	/**
+	 * Derives accounts from private keys.
+	 *
+	 * @param privateKeysHex The private keys as hex strings.
+	 * @return The future accounts, in the same order as the private keys.
+	 */
+	public static CompletableFuture<List<Account>> deriveAccounts(final List<String> privateKeysHex) {
+		if (!ENABLED) {
+			return CompletableFuture.completedFuture(privateKeysHex.stream()
+					.map(FastStart::createAccount)
+					.collect(Collectors.toList()));
+		}
+
+		return CompletableFuture.supplyAsync(() -> privateKeysHex.parallelStream()
+				.map(FastStart::createAccount)
+				.collect(Collectors.toList()));
+	}
+
+	private static Account createAccount(final String privateKeyHex) {
+		return new Account(new KeyPair(PrivateKey.fromHexString(privateKeyHex)));
+	}
+}
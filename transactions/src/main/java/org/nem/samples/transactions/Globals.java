@@ -4,11 +4,39 @@ import org.nem.core.connect.client.DefaultAsyncNemConnector;
 import org.nem.core.node.*;
 import org.nem.core.time.*;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Some global data.
  */
 public class Globals {
 	public static final TimeProvider TIME_PROVIDER = new SystemTimeProvider();
 	public static final NodeEndpoint MIJIN_NODE_ENDPOINT = new NodeEndpoint("http", <ask_dev_team_for_ip>, 7895);
-	public static final DefaultAsyncNemConnector<ApiId> CONNECTOR = ConnectorFactory.createConnector();
+
+	private static CompletableFuture<DefaultAsyncNemConnector<ApiId>> connector;
+
+	/**
+	 * Gets the connector. The connector is created on first use unless it is already being created in the background.
+	 *
+	 * @return The connector.
+	 */
+	public static DefaultAsyncNemConnector<ApiId> getConnector() {
+		return startConnector(false).join();
+	}
+
+	/**
+	 * Starts creating the connector unless it was already started.
+	 *
+	 * @param async true if the connector should be created in the background.
+	 * @return The future connector.
+	 */
+	static synchronized CompletableFuture<DefaultAsyncNemConnector<ApiId>> startConnector(final boolean async) {
+		if (null == connector) {
+			connector = async
+					? CompletableFuture.supplyAsync(ConnectorFactory::createConnector)
+					: CompletableFuture.completedFuture(ConnectorFactory.createConnector());
+		}
+
+		return connector;
+	}
 }
@@ -0,0 +1,42 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.Hash;
+import org.nem.core.model.*;
+import org.nem.core.model.primitive.Amount;
+import org.nem.core.time.TimeInstant;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cosigner service that signs in process with a locally held key.
+ */
+public class LocalCosignerService implements CosignerService {
+	private final Account cosigner;
+
+	/**
+	 * Creates a local cosigner service.
+	 *
+	 * @param cosigner The cosignatory account (must have a private key).
+	 */
+	public LocalCosignerService(final Account cosigner) {
+		this.cosigner = cosigner;
+	}
+
+	@Override
+	public CompletableFuture<MultisigSignatureTransaction> cosign(
+			final Account multisig,
+			final Hash innerTransactionHash,
+			final TimeInstant timeInstant) {
+		return CompletableFuture.supplyAsync(() -> {
+			final MultisigSignatureTransaction transaction = new MultisigSignatureTransaction(
+					timeInstant,
+					this.cosigner,
+					multisig,
+					innerTransactionHash);
+			transaction.setFee(Amount.fromNem(6));
+			transaction.setDeadline(timeInstant.addHours(23));
+			transaction.sign();
+			return transaction;
+		});
+	}
+}
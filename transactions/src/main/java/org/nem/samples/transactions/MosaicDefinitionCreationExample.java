@@ -3,7 +3,6 @@ package org.nem.samples.transactions;
 import org.nem.core.async.SleepFuture;
 import org.nem.core.connect.HttpJsonPostRequest;
 import org.nem.core.connect.client.NisApiId;
-import org.nem.core.crypto.*;
 import org.nem.core.model.*;
 import org.nem.core.model.mosaic.*;
 import org.nem.core.model.namespace.NamespaceId;
@@ -31,10 +30,11 @@ public class MosaicDefinitionCreationExample {
 	// Choose mijin network
 	static {
 		NetworkInfos.setDefault(NetworkInfos.fromFriendlyName("mijinnet"));
+		FastStart.start();
 	}
 
 	private static final String PRIVATE_KEY_HEX = "73eb2169a871e081bacea12e7be25a0ad284b43207e39d51d4837a54c65a28c2";
-	private static final Account SENDER = new Account(new KeyPair(PrivateKey.fromHexString(PRIVATE_KEY_HEX)));
+	private static final CompletableFuture<Account> SENDER = FastStart.deriveAccount(PRIVATE_KEY_HEX);
 
 	public static void main(String[] args) {
 		createMosaicDefinition();
@@ -48,7 +48,7 @@ public class MosaicDefinitionCreationExample {
 		// !!! replace this with another string every time you run the sample !!!
 		final String mosaicName = "dollar";
 		final NamespaceId namespaceId = new NamespaceId("examples.mijin");
-		if (!createAndSend(SENDER, namespaceId, mosaicName)) {
+		if (!createAndSend(SENDER.join(), namespaceId, mosaicName)) {
 			LOGGER.warning("mosaic definition creation failed");
 			return;
 		}
@@ -119,7 +119,7 @@ public class MosaicDefinitionCreationExample {
 	}
 
 	private static CompletableFuture<Deserializer> send(final NodeEndpoint endpoint, final RequestAnnounce request) {
-		return Globals.CONNECTOR.postAsync(
+		return Globals.getConnector().postAsync(
 				endpoint,
 				NisApiId.NIS_REST_TRANSACTION_ANNOUNCE,
 				new HttpJsonPostRequest(request));
@@ -172,7 +172,7 @@ public class MosaicDefinitionCreationExample {
 	}
 
 	private static MosaicDefinition retrieveMosaicDefinition(final MosaicId id) {
-		final CompletableFuture<Deserializer> future = Globals.CONNECTOR.getAsync(
+		final CompletableFuture<Deserializer> future = Globals.getConnector().getAsync(
 				Globals.MIJIN_NODE_ENDPOINT,
 				SamplesApiId.NIS_REST_MOSAIC_DEFINITION,
 				String.format("mosaicId=%s", urlEncode(id.toString())));
@@ -3,7 +3,6 @@ package org.nem.samples.transactions;
 import org.nem.core.async.SleepFuture;
 import org.nem.core.connect.HttpJsonPostRequest;
 import org.nem.core.connect.client.NisApiId;
-import org.nem.core.crypto.*;
 import org.nem.core.model.*;
 import org.nem.core.model.mosaic.*;
 import org.nem.core.model.namespace.NamespaceId;
@@ -30,10 +29,11 @@ public class MosaicSupplyChangeExample {
 	// Choose mijin network
 	static {
 		NetworkInfos.setDefault(NetworkInfos.fromFriendlyName("mijinnet"));
+		FastStart.start();
 	}
 
 	private static final String PRIVATE_KEY_HEX = "73eb2169a871e081bacea12e7be25a0ad284b43207e39d51d4837a54c65a28c2";
-	private static final Account SENDER = new Account(new KeyPair(PrivateKey.fromHexString(PRIVATE_KEY_HEX)));
+	private static final CompletableFuture<Account> SENDER = FastStart.deriveAccount(PRIVATE_KEY_HEX);
 
 	public static void main(String[] args) {
 		changeMosaicSupply();
@@ -48,7 +48,7 @@ public class MosaicSupplyChangeExample {
 		final MosaicIdSupplyPair currentSupply = retrieveMosaicSupply(mosaicId);
 		LOGGER.info(String.format("mosaic %s currently has a supply of %d (units)", mosaicId.toString(), currentSupply.getSupply().getRaw()));
 
-		if (!createAndSend(SENDER, mosaicId, 1000000)) {
+		if (!createAndSend(SENDER.join(), mosaicId, 1000000)) {
 			LOGGER.warning("mosaic supply change failed");
 			return;
 		}
@@ -100,7 +100,7 @@ public class MosaicSupplyChangeExample {
 	}
 
 	private static CompletableFuture<Deserializer> send(final NodeEndpoint endpoint, final RequestAnnounce request) {
-		return Globals.CONNECTOR.postAsync(
+		return Globals.getConnector().postAsync(
 				endpoint,
 				NisApiId.NIS_REST_TRANSACTION_ANNOUNCE,
 				new HttpJsonPostRequest(request));
@@ -124,7 +124,7 @@ public class MosaicSupplyChangeExample {
 	}
 
 	private static MosaicIdSupplyPair retrieveMosaicSupply(final MosaicId id) {
-		final CompletableFuture<Deserializer> future = Globals.CONNECTOR.getAsync(
+		final CompletableFuture<Deserializer> future = Globals.getConnector().getAsync(
 				Globals.MIJIN_NODE_ENDPOINT,
 				SamplesApiId.NIS_REST_MOSAIC_SUPPLY,
 				String.format("mosaicId=%s", urlEncode(id.toString())));
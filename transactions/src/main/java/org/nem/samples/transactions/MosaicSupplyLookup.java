@@ -0,0 +1,21 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.model.mosaic.MosaicId;
+import org.nem.core.model.primitive.Supply;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Looks up the current supply of mosaics.
+ */
+@FunctionalInterface
+public interface MosaicSupplyLookup {
+
+	/**
+	 * Gets the current supply of a mosaic.
+	 *
+	 * @param mosaicId The mosaic id.
+	 * @return The future supply (in whole units).
+	 */
+	CompletableFuture<Supply> getSupply(final MosaicId mosaicId);
+}
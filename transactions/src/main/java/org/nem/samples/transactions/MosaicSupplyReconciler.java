@@ -0,0 +1,276 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.Hash;
+import org.nem.core.model.*;
+import org.nem.core.model.mosaic.*;
+import org.nem.core.model.namespace.NamespaceId;
+import org.nem.core.model.primitive.*;
+import org.nem.core.time.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Aligns the supplies of mosaics with target supplies.
+ * <br>
+ * The checkpoint remembers for every mosaic either the target that was verified on chain or the supply change
+ * that was announced for it. A mosaic is skipped if its target was verified before, unless a full verification is
+ * requested. For all other mosaics the current supply is retrieved. If an announced supply change can still be
+ * included in a block and the supply is not at the target of that change yet, the mosaic is skipped. Otherwise, if
+ * the supply is not at its target, a single supply change transaction with the minimal delta is announced.
+ * A target is only recorded as verified once the supply on chain was seen to match it.
+ * <br>
+ * At most maxConcurrentRequests mosaics are processed at the same time, without blocking any thread.
+ * <br>
+ * Targets are read from text files with one "namespace * name,supply" line per mosaic. Checkpoint files use the same
+ * format with the hash and deadline of the pending transaction appended to pending entries.
+ * Empty lines and lines starting with # are ignored.
+ */
+public class MosaicSupplyReconciler {
+	private static final Logger LOGGER = Logger.getLogger(MosaicSupplyReconciler.class.getName());
+
+	private final Account owner;
+	private final MosaicSupplyLookup supplyLookup;
+	private final TransactionAnnouncer announcer;
+	private final TimeProvider timeProvider;
+	private final int maxConcurrentRequests;
+
+	/**
+	 * Creates a reconciler.
+	 *
+	 * @param owner The creator of the mosaics (must have a private key).
+	 * @param supplyLookup The lookup for current supplies.
+	 * @param announcer The announcer.
+	 * @param timeProvider The time provider.
+	 * @param maxConcurrentRequests The maximum number of mosaics processed at the same time.
+	 */
+	public MosaicSupplyReconciler(
+			final Account owner,
+			final MosaicSupplyLookup supplyLookup,
+			final TransactionAnnouncer announcer,
+			final TimeProvider timeProvider,
+			final int maxConcurrentRequests) {
+		if (maxConcurrentRequests < 1) {
+			throw new IllegalArgumentException("max concurrent requests must be positive");
+		}
+
+		this.owner = owner;
+		this.supplyLookup = supplyLookup;
+		this.announcer = announcer;
+		this.timeProvider = timeProvider;
+		this.maxConcurrentRequests = maxConcurrentRequests;
+	}
+
+	/**
+	 * Reconciles the supplies of all mosaics that are not known to be at their target.
+	 *
+	 * @param targets The target supplies.
+	 * @param checkpoint The checkpoint of previous runs.
+	 * @param fullVerify true if the supplies of verified mosaics should be checked again.
+	 * @return The future checkpoint entries of all mosaics that were processed successfully by this run.
+	 */
+	public CompletableFuture<Map<MosaicId, SupplyCheckpointEntry>> reconcile(
+			final Map<MosaicId, Supply> targets,
+			final Map<MosaicId, SupplyCheckpointEntry> checkpoint,
+			final boolean fullVerify) {
+		final TimeInstant timeInstant = this.timeProvider.getCurrentTime();
+		final List<MosaicId> candidates = targets.entrySet().stream()
+				.filter(e -> needsReconciliation(e.getValue(), checkpoint.get(e.getKey()), fullVerify))
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+		LOGGER.info(String.format("%d of %d mosaics need to be checked", candidates.size(), targets.size()));
+
+		return AsyncThrottle.mapAll(
+				candidates,
+				this.maxConcurrentRequests,
+				mosaicId -> this.reconcile(mosaicId, targets.get(mosaicId), checkpoint.get(mosaicId), timeInstant))
+				.thenApply(entries -> {
+					final Map<MosaicId, SupplyCheckpointEntry> result = new HashMap<>();
+					for (int i = 0; i < candidates.size(); ++i) {
+						if (null != entries.get(i)) {
+							result.put(candidates.get(i), entries.get(i));
+						}
+					}
+
+					return result;
+				});
+	}
+
+	private static boolean needsReconciliation(final Supply target, final SupplyCheckpointEntry entry, final boolean fullVerify) {
+		// pending supply changes are checked in every run, either to confirm them or because they expired
+		return null == entry || entry.isPending() || fullVerify || !entry.getTarget().equals(target);
+	}
+
+	private CompletableFuture<SupplyCheckpointEntry> reconcile(
+			final MosaicId mosaicId,
+			final Supply target,
+			final SupplyCheckpointEntry entry,
+			final TimeInstant timeInstant) {
+		return this.supplyLookup.getSupply(mosaicId)
+				.thenCompose(current -> {
+					// a supply change that can still be included must not be followed by a second one,
+					// unless the supply shows that it was included already
+					if (null != entry && entry.isPendingAt(timeInstant) && !entry.getTarget().equals(current)) {
+						LOGGER.info(String.format("skipping mosaic %s, supply change %s is pending until %s",
+								mosaicId,
+								entry.getPendingTransactionHash(),
+								entry.getPendingDeadline()));
+						return CompletableFuture.completedFuture(entry);
+					}
+
+					final long delta = target.getRaw() - current.getRaw();
+					if (0 == delta) {
+						return CompletableFuture.completedFuture(SupplyCheckpointEntry.verified(target));
+					}
+
+					final Transaction transaction = this.createTransaction(mosaicId, delta);
+					return this.announcer.announce(transaction)
+							.thenApply(v -> {
+								LOGGER.info(String.format("changing supply of mosaic %s by %d units to %d",
+										mosaicId,
+										delta,
+										target.getRaw()));
+								return SupplyCheckpointEntry.pending(
+										target,
+										HashUtils.calculateHash(transaction),
+										transaction.getDeadline());
+							});
+				})
+				.exceptionally(e -> {
+					LOGGER.warning(String.format("could not reconcile supply of mosaic %s, reason: %s",
+							mosaicId,
+							e.getMessage()));
+					return null;
+				});
+	}
+
+	private Transaction createTransaction(final MosaicId mosaicId, final long delta) {
+		final TimeInstant timeInstant = this.timeProvider.getCurrentTime();
+		final MosaicSupplyChangeTransaction transaction = new MosaicSupplyChangeTransaction(
+				timeInstant,
+				this.owner,
+				mosaicId,
+				delta > 0 ? MosaicSupplyType.Create : MosaicSupplyType.Delete,
+				Supply.fromValue(Math.abs(delta)));   // change in supply (always in whole units, not subunits)
+		transaction.setFee(Amount.fromNem(108));
+		transaction.setDeadline(timeInstant.addHours(23));
+		transaction.sign();
+		return transaction;
+	}
+
+	//region files
+
+	/**
+	 * Reads target supplies from a file.
+	 *
+	 * @param file The file.
+	 * @return The supplies.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static Map<MosaicId, Supply> readSupplies(final File file) throws IOException {
+		try (final Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+			return readSupplies(reader);
+		}
+	}
+
+	/**
+	 * Reads target supplies from a stream.
+	 *
+	 * @param reader The reader.
+	 * @return The supplies.
+	 * @throws IOException if the stream cannot be read.
+	 */
+	public static Map<MosaicId, Supply> readSupplies(final Reader reader) throws IOException {
+		final Map<MosaicId, Supply> supplies = new LinkedHashMap<>();
+		readLines(reader, 2, (mosaicId, fields) -> supplies.put(mosaicId, Supply.fromValue(Long.parseLong(fields[1]))));
+		return supplies;
+	}
+
+	/**
+	 * Reads a checkpoint from a file. A missing file is treated as empty.
+	 *
+	 * @param file The file.
+	 * @return The checkpoint entries.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static Map<MosaicId, SupplyCheckpointEntry> readCheckpoint(final File file) throws IOException {
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = new LinkedHashMap<>();
+		if (!file.exists()) {
+			return checkpoint;
+		}
+
+		try (final Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+			readLines(reader, 4, (mosaicId, fields) -> {
+				final Supply target = Supply.fromValue(Long.parseLong(fields[1]));
+				checkpoint.put(mosaicId, 2 == fields.length
+						? SupplyCheckpointEntry.verified(target)
+						: SupplyCheckpointEntry.pending(target, Hash.fromHexString(fields[2]), new TimeInstant(Integer.parseInt(fields[3]))));
+			});
+		}
+
+		return checkpoint;
+	}
+
+	/**
+	 * Writes a checkpoint to a file. The file is replaced atomically.
+	 *
+	 * @param file The file.
+	 * @param checkpoint The checkpoint entries.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void writeCheckpoint(final File file, final Map<MosaicId, SupplyCheckpointEntry> checkpoint) throws IOException {
+		final File tempFile = new File(file.getPath() + ".tmp");
+		try (final Writer writer = new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8)) {
+			for (final Map.Entry<MosaicId, SupplyCheckpointEntry> entry : checkpoint.entrySet()) {
+				final SupplyCheckpointEntry value = entry.getValue();
+				writer.write(value.isPending()
+						? String.format("%s,%d,%s,%d%n",
+								entry.getKey(),
+								value.getTarget().getRaw(),
+								value.getPendingTransactionHash(),
+								value.getPendingDeadline().getRawTime())
+						: String.format("%s,%d%n", entry.getKey(), value.getTarget().getRaw()));
+			}
+		}
+
+		Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void readLines(
+			final Reader reader,
+			final int maxFields,
+			final BiConsumer<MosaicId, String[]> consumer) throws IOException {
+		final BufferedReader bufferedReader = new BufferedReader(reader);
+		String line;
+		while (null != (line = bufferedReader.readLine())) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+
+			final String[] fields = line.split(",");
+			final String[] idParts = fields[0].split("\\*");
+			if (fields.length < 2 || fields.length > maxFields || 3 == fields.length || 2 != idParts.length) {
+				throw new IOException(String.format("invalid line '%s'", line));
+			}
+
+			for (int i = 0; i < fields.length; ++i) {
+				fields[i] = fields[i].trim();
+			}
+
+			try {
+				consumer.accept(new MosaicId(new NamespaceId(idParts[0].trim()), idParts[1].trim()), fields);
+			} catch (final IllegalArgumentException e) {
+				throw new IOException(String.format("invalid line '%s'", line), e);
+			}
+		}
+	}
+
+	//endregion
+}
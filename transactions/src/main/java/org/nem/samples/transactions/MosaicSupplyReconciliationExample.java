@@ -0,0 +1,94 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.model.*;
+import org.nem.core.model.mosaic.MosaicId;
+import org.nem.core.model.primitive.Supply;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Sample console application showing how to keep the supplies of many mosaics aligned with target supplies.
+ * The target supplies are read from a file (or from standard input if the file is "-") with one
+ * "namespace * name,supply" line per mosaic, e.g. "examples.mijin * euro,5000000".
+ * Verified targets and announced supply changes are stored in a checkpoint file so that the next run only handles
+ * mosaics whose target changed or whose supply change could not be verified yet.
+ * Passing "verify" as third argument checks the supplies of all mosaics again to detect drift on chain.
+ * <br>
+ * Usage: MosaicSupplyReconciliationExample &lt;target file&gt; [checkpoint file] [verify]
+ * <br>
+ * This code is provided to demonstrate basic usage of nem core.
+ * For a more complete documentation of the API used see
+ * http://bob.nem.ninja/docs
+ */
+public class MosaicSupplyReconciliationExample {
+	private static final Logger LOGGER = Logger.getLogger(MosaicSupplyReconciliationExample.class.getName());
+
+	// Choose mijin network
+	static {
+		NetworkInfos.setDefault(NetworkInfos.fromFriendlyName("mijinnet"));
+		FastStart.start();
+	}
+
+	private static final String PRIVATE_KEY_HEX = "73eb2169a871e081bacea12e7be25a0ad284b43207e39d51d4837a54c65a28c2";
+	private static final CompletableFuture<Account> SENDER = FastStart.deriveAccount(PRIVATE_KEY_HEX);
+
+	// stays well below the connection pool size of the http client
+	private static final int MAX_CONCURRENT_REQUESTS = 8;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			LOGGER.warning("usage: MosaicSupplyReconciliationExample <target file> [checkpoint file] [verify]");
+			System.exit(1);
+		}
+
+		final File checkpointFile = new File(args.length > 1 ? args[1] : "supply-checkpoint.txt");
+		final boolean fullVerify = args.length > 2 && "verify".equals(args[2]);
+		reconcileMosaicSupplies(readTargets(args[0]), checkpointFile, fullVerify);
+		LOGGER.info("finished");
+		System.exit(0);
+	}
+
+	private static void reconcileMosaicSupplies(
+			final Map<MosaicId, Supply> targets,
+			final File checkpointFile,
+			final boolean fullVerify) throws IOException {
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = MosaicSupplyReconciler.readCheckpoint(checkpointFile);
+		final MosaicSupplyReconciler reconciler = new MosaicSupplyReconciler(
+				SENDER.join(),
+				new NodeMosaicSupplyLookup(Globals.MIJIN_NODE_ENDPOINT),
+				new NodeTransactionAnnouncer(Globals.MIJIN_NODE_ENDPOINT),
+				Globals.TIME_PROVIDER,
+				MAX_CONCURRENT_REQUESTS);
+		final Map<MosaicId, SupplyCheckpointEntry> entries = reconciler.reconcile(targets, checkpoint, fullVerify).join();
+
+		// entries of mosaics with a supply change that is still pending are returned unchanged
+		final long numStillPending = entries.entrySet().stream().filter(e -> e.getValue() == checkpoint.get(e.getKey())).count();
+		final long numPending = entries.values().stream().filter(SupplyCheckpointEntry::isPending).count();
+
+		// mosaics that failed keep their old checkpoint entry and are retried on the next run
+		checkpoint.putAll(entries);
+		MosaicSupplyReconciler.writeCheckpoint(checkpointFile, checkpoint);
+		LOGGER.info(String.format("verified %d mosaics, announced supply changes for %d mosaics, %d mosaics still pending, checkpoint written to %s",
+				entries.size() - numPending,
+				numPending - numStillPending,
+				numStillPending,
+				checkpointFile));
+	}
+
+	private static Map<MosaicId, Supply> readTargets(final String name) throws IOException {
+		if ("-".equals(name)) {
+			return MosaicSupplyReconciler.readSupplies(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		}
+
+		final File file = new File(name);
+		if (!file.exists()) {
+			throw new FileNotFoundException(String.format("target file %s does not exist", file));
+		}
+
+		return MosaicSupplyReconciler.readSupplies(file);
+	}
+}
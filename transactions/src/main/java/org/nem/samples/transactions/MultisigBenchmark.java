@@ -0,0 +1,91 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.KeyPair;
+import org.nem.core.model.*;
+import org.nem.core.model.primitive.Amount;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+import java.util.stream.*;
+
+/**
+ * Console application measuring the multisig payout throughput for different numbers of cosignatories.
+ * <br>
+ * Cosignatures are created by local cosigner services and the announcer is an in-process stand-in that accepts
+ * every transaction after a fixed latency, so the benchmark does not need a node but still measures how well
+ * signing and announcing are pipelined.
+ * <br>
+ * Usage: MultisigBenchmark [payouts per run] [announce latency in ms]
+ */
+public class MultisigBenchmark {
+	private static final Logger LOGGER = Logger.getLogger(MultisigBenchmark.class.getName());
+	private static final int[] COSIGNER_COUNTS = { 0, 1, 2, 4, 8 };
+	private static final int MAX_CONCURRENT_PAYOUTS = 64;
+
+	// Choose mijin network
+	static {
+		NetworkInfos.setDefault(NetworkInfos.fromFriendlyName("mijinnet"));
+	}
+
+	public static void main(String[] args) {
+		final int numPayouts = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		final int latency = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+		final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		final TransactionAnnouncer announcer = transaction -> {
+			final CompletableFuture<Void> future = new CompletableFuture<>();
+			scheduler.schedule(() -> future.complete(null), latency, TimeUnit.MILLISECONDS);
+			return future;
+		};
+		final List<Account> recipients = IntStream.range(0, numPayouts)
+				.mapToObj(i -> new Account(new KeyPair()))
+				.collect(Collectors.toList());
+
+		// warm up
+		run(createCoordinator(2, announcer), recipients);
+
+		for (final int numCosigners : COSIGNER_COUNTS) {
+			final MultisigPayoutCoordinator coordinator = createCoordinator(numCosigners, announcer);
+			final long elapsed = run(coordinator, recipients);
+			LOGGER.info(String.format("%d cosigners, %d ms latency: %d payouts in %d ms, %.1f payouts/s",
+					numCosigners,
+					latency,
+					numPayouts,
+					elapsed,
+					numPayouts * 1000.0 / Math.max(1, elapsed)));
+		}
+
+		LOGGER.info("finished");
+		System.exit(0);
+	}
+
+	private static MultisigPayoutCoordinator createCoordinator(final int numCosigners, final TransactionAnnouncer announcer) {
+		final Account multisig = new Account(new KeyPair(new KeyPair().getPublicKey()));
+		final List<CosignerService> cosigners = IntStream.range(0, numCosigners)
+				.mapToObj(i -> new LocalCosignerService(new Account(new KeyPair())))
+				.collect(Collectors.toList());
+		return new MultisigPayoutCoordinator(
+				multisig,
+				new Account(new KeyPair()),
+				cosigners,
+				announcer,
+				Globals.TIME_PROVIDER,
+				MAX_CONCURRENT_PAYOUTS);
+	}
+
+	// measures preparing (signing the multisig transactions) and announcing the payouts
+	private static long run(final MultisigPayoutCoordinator coordinator, final List<Account> recipients) {
+		final long start = System.nanoTime();
+		final List<MultisigPayout> payouts = recipients.stream()
+				.map(recipient -> coordinator.prepare(recipient, Amount.fromMicroNem(1000)))
+				.collect(Collectors.toList());
+		final long numFailed = coordinator.payAll(payouts).join().stream()
+				.filter(result -> !result.isSuccess())
+				.count();
+		if (0 != numFailed) {
+			throw new IllegalStateException(String.format("%d payouts failed", numFailed));
+		}
+
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+}
@@ -0,0 +1,137 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.Hash;
+import org.nem.core.model.*;
+
+/**
+ * A prepared multisig payout.
+ * <br>
+ * The hash of the inner transfer transaction is fixed when the payout is prepared, so it can be recorded before
+ * anything is announced. The payout also keeps the signed cosignatures and remembers which transactions were
+ * accepted by the node. Retrying a payout with the same instance only announces what was not accepted yet,
+ * reusing the signed transactions, and never creates a second transfer.
+ */
+public class MultisigPayout {
+	private final Hash transferHash;
+	private final Transaction multisigTransaction;
+	private final MultisigSignatureTransaction[] cosignatures;
+	private final boolean[] cosignaturesAnnounced;
+	private boolean multisigTransactionAnnounced;
+
+	/**
+	 * Creates a payout.
+	 *
+	 * @param transferHash The hash of the inner transfer transaction.
+	 * @param multisigTransaction The signed multisig transaction wrapping the transfer.
+	 * @param numCosignatures The number of cosignatures needed.
+	 */
+	public MultisigPayout(final Hash transferHash, final Transaction multisigTransaction, final int numCosignatures) {
+		this.transferHash = transferHash;
+		this.multisigTransaction = multisigTransaction;
+		this.cosignatures = new MultisigSignatureTransaction[numCosignatures];
+		this.cosignaturesAnnounced = new boolean[numCosignatures];
+	}
+
+	/**
+	 * Gets the hash of the inner transfer transaction.
+	 *
+	 * @return The hash.
+	 */
+	public Hash getTransferHash() {
+		return this.transferHash;
+	}
+
+	/**
+	 * Gets the signed multisig transaction wrapping the transfer.
+	 *
+	 * @return The multisig transaction.
+	 */
+	public Transaction getMultisigTransaction() {
+		return this.multisigTransaction;
+	}
+
+	/**
+	 * Gets the number of cosignatures needed.
+	 *
+	 * @return The number of cosignatures.
+	 */
+	public int getNumCosignatures() {
+		return this.cosignatures.length;
+	}
+
+	/**
+	 * Gets a value indicating whether or not the multisig transaction was accepted by the node.
+	 *
+	 * @return true if the multisig transaction was announced, false otherwise.
+	 */
+	public synchronized boolean isMultisigTransactionAnnounced() {
+		return this.multisigTransactionAnnounced;
+	}
+
+	/**
+	 * Marks the multisig transaction as accepted by the node.
+	 */
+	public synchronized void markMultisigTransactionAnnounced() {
+		this.multisigTransactionAnnounced = true;
+	}
+
+	/**
+	 * Gets a signed cosignature.
+	 *
+	 * @param index The index of the cosigner.
+	 * @return The cosignature or null if the cosigner did not sign yet.
+	 */
+	public synchronized MultisigSignatureTransaction getCosignature(final int index) {
+		return this.cosignatures[index];
+	}
+
+	/**
+	 * Sets a signed cosignature. A cosignature that was set before is kept.
+	 *
+	 * @param index The index of the cosigner.
+	 * @param cosignature The cosignature.
+	 * @return The cosignature that should be announced.
+	 */
+	public synchronized MultisigSignatureTransaction setCosignature(final int index, final MultisigSignatureTransaction cosignature) {
+		if (null == this.cosignatures[index]) {
+			this.cosignatures[index] = cosignature;
+		}
+
+		return this.cosignatures[index];
+	}
+
+	/**
+	 * Gets a value indicating whether or not a cosignature was accepted by the node.
+	 *
+	 * @param index The index of the cosigner.
+	 * @return true if the cosignature was announced, false otherwise.
+	 */
+	public synchronized boolean isCosignatureAnnounced(final int index) {
+		return this.cosignaturesAnnounced[index];
+	}
+
+	/**
+	 * Marks a cosignature as accepted by the node.
+	 *
+	 * @param index The index of the cosigner.
+	 */
+	public synchronized void markCosignatureAnnounced(final int index) {
+		this.cosignaturesAnnounced[index] = true;
+	}
+
+	/**
+	 * Gets the number of cosignatures accepted by the node.
+	 *
+	 * @return The number of announced cosignatures.
+	 */
+	public synchronized int getNumCosignaturesAnnounced() {
+		int count = 0;
+		for (final boolean announced : this.cosignaturesAnnounced) {
+			if (announced) {
+				++count;
+			}
+		}
+
+		return count;
+	}
+}
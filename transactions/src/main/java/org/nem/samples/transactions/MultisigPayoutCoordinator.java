@@ -0,0 +1,180 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.model.*;
+import org.nem.core.model.primitive.Amount;
+import org.nem.core.time.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Pays out from a multisig account.
+ * <br>
+ * Every payout is a transfer transaction from the multisig account, wrapped into a multisig transaction that is
+ * signed by the initiating cosignatory. The cosignatures of the remaining cosignatories are requested from their
+ * cosigner services while the multisig transaction is being announced, and each cosignature is announced as soon as
+ * both it and the multisig transaction are done. Payouts of a batch do not wait for each other.
+ * <br>
+ * Payouts are prepared before they are announced, so the hash of the transfer is known up front and a failed
+ * payout can be retried with the same transfer instead of creating a second one. Since every payout posts one
+ * transaction per cosignatory plus the multisig transaction, the number of payouts in flight is limited.
+ */
+public class MultisigPayoutCoordinator {
+	private final Account multisig;
+	private final Account initiator;
+	private final List<CosignerService> cosigners;
+	private final TransactionAnnouncer announcer;
+	private final TimeProvider timeProvider;
+	private final int maxConcurrentPayouts;
+
+	/**
+	 * Creates a coordinator.
+	 *
+	 * @param multisig The multisig account (public key is sufficient).
+	 * @param initiator The cosignatory initiating the payouts (must have a private key).
+	 * @param cosigners The services of the other cosignatories whose signatures are needed.
+	 * @param announcer The announcer.
+	 * @param timeProvider The time provider.
+	 * @param maxConcurrentPayouts The maximum number of payouts of a batch announced at the same time.
+	 */
+	public MultisigPayoutCoordinator(
+			final Account multisig,
+			final Account initiator,
+			final List<CosignerService> cosigners,
+			final TransactionAnnouncer announcer,
+			final TimeProvider timeProvider,
+			final int maxConcurrentPayouts) {
+		if (maxConcurrentPayouts < 1) {
+			throw new IllegalArgumentException("max concurrent payouts must be positive");
+		}
+
+		this.multisig = multisig;
+		this.initiator = initiator;
+		this.cosigners = new ArrayList<>(cosigners);
+		this.announcer = announcer;
+		this.timeProvider = timeProvider;
+		this.maxConcurrentPayouts = maxConcurrentPayouts;
+	}
+
+	/**
+	 * Prepares a payout. Nothing is announced yet.
+	 *
+	 * @param recipient The recipient.
+	 * @param amount The amount.
+	 * @return The payout.
+	 */
+	public MultisigPayout prepare(final Account recipient, final Amount amount) {
+		final TimeInstant timeInstant = this.timeProvider.getCurrentTime();
+		final Transaction transfer = this.createTransfer(timeInstant, recipient, amount);
+		return new MultisigPayout(
+				HashUtils.calculateHash(transfer),
+				this.createMultisig(timeInstant, transfer),
+				this.cosigners.size());
+	}
+
+	/**
+	 * Announces a payout. Transactions of the payout that were accepted by an earlier attempt are not announced
+	 * again and cosignatures that were signed by an earlier attempt are reused. A transaction the node rejects as
+	 * already known counts as accepted.
+	 *
+	 * @param payout The payout.
+	 * @return The future result, which never completes exceptionally.
+	 */
+	public CompletableFuture<MultisigPayoutResult> announce(final MultisigPayout payout) {
+		if (this.cosigners.size() != payout.getNumCosignatures()) {
+			throw new IllegalArgumentException("payout was prepared for a different number of cosigners");
+		}
+
+		// start collecting the cosignatures before announcing the multisig transaction
+		final List<CompletableFuture<Void>> cosignaturesAnnounced = new ArrayList<>();
+		final CompletableFuture<Void> wrapperAnnounced = payout.isMultisigTransactionAnnounced()
+				? CompletableFuture.completedFuture(null)
+				: this.announceOnce(payout.getMultisigTransaction()).thenRun(payout::markMultisigTransactionAnnounced);
+		for (int i = 0; i < this.cosigners.size(); ++i) {
+			if (payout.isCosignatureAnnounced(i)) {
+				continue;
+			}
+
+			final int index = i;
+			cosignaturesAnnounced.add(wrapperAnnounced.thenCombine(this.cosign(payout, index), (v, t) -> t)
+					.thenCompose(this::announceOnce)
+					.thenRun(() -> payout.markCosignatureAnnounced(index)));
+		}
+
+		return CompletableFuture.allOf(cosignaturesAnnounced.toArray(new CompletableFuture<?>[cosignaturesAnnounced.size()]))
+				.thenCombine(wrapperAnnounced, (v1, v2) -> (Void)null)
+				.handle((v, e) -> new MultisigPayoutResult(
+						payout.getTransferHash(),
+						payout.isMultisigTransactionAnnounced(),
+						e instanceof CompletionException ? e.getCause() : e));
+	}
+
+	/**
+	 * Prepares and announces a single payout.
+	 *
+	 * @param recipient The recipient.
+	 * @param amount The amount.
+	 * @return The future result, which never completes exceptionally.
+	 */
+	public CompletableFuture<MultisigPayoutResult> pay(final Account recipient, final Amount amount) {
+		return this.announce(this.prepare(recipient, amount));
+	}
+
+	/**
+	 * Announces a batch of prepared payouts. At most maxConcurrentPayouts payouts are announced at the same time,
+	 * otherwise the payouts do not wait for each other and a failed payout does not affect the others.
+	 *
+	 * @param payouts The payouts.
+	 * @return The future results, in the same order as the payouts.
+	 */
+	public CompletableFuture<List<MultisigPayoutResult>> payAll(final List<MultisigPayout> payouts) {
+		return AsyncThrottle.mapAll(payouts, this.maxConcurrentPayouts, this::announce);
+	}
+
+	private CompletableFuture<MultisigSignatureTransaction> cosign(final MultisigPayout payout, final int index) {
+		final MultisigSignatureTransaction cosignature = payout.getCosignature(index);
+		if (null != cosignature) {
+			return CompletableFuture.completedFuture(cosignature);
+		}
+
+		// the time of the multisig transaction is used so that the cosignature has the same deadline
+		return this.cosigners.get(index)
+				.cosign(this.multisig, payout.getTransferHash(), payout.getMultisigTransaction().getTimeStamp())
+				.thenApply(t -> payout.setCosignature(index, t));
+	}
+
+	private CompletableFuture<Void> announceOnce(final Transaction transaction) {
+		final CompletableFuture<Void> future = new CompletableFuture<>();
+		this.announcer.announce(transaction).whenComplete((v, e) -> {
+			final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+			if (null == cause || (cause instanceof TransactionRejectedException && ((TransactionRejectedException)cause).isDuplicate())) {
+				future.complete(null);
+			} else {
+				future.completeExceptionally(cause);
+			}
+		});
+		return future;
+	}
+
+	private Transaction createTransfer(final TimeInstant timeInstant, final Account recipient, final Amount amount) {
+		// the inner transaction is not signed, the cosignatories sign its hash instead
+		final TransferTransaction transaction = new TransferTransaction(
+				2,                                // version
+				timeInstant,                      // time instant
+				this.multisig,                    // sender
+				recipient,                        // recipient
+				amount,                           // amount in micro xem
+				null);                            // attachment (message, mosaics)
+		transaction.setFee(Amount.fromNem(200));
+		transaction.setDeadline(timeInstant.addHours(23));
+		return transaction;
+	}
+
+	private Transaction createMultisig(final TimeInstant timeInstant, final Transaction transfer) {
+		final MultisigTransaction transaction = new MultisigTransaction(timeInstant, this.initiator, transfer);
+		transaction.setFee(Amount.fromNem(6));
+		transaction.setDeadline(timeInstant.addHours(23));
+		transaction.sign();
+		return transaction;
+	}
+}
@@ -0,0 +1,61 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.Hash;
+
+/**
+ * The outcome of announcing a multisig payout.
+ */
+public class MultisigPayoutResult {
+	private final Hash transferHash;
+	private final boolean multisigTransactionAnnounced;
+	private final Throwable error;
+
+	/**
+	 * Creates a result.
+	 *
+	 * @param transferHash The hash of the inner transfer transaction.
+	 * @param multisigTransactionAnnounced true if the multisig transaction was accepted by the node.
+	 * @param error The first error that occurred or null if all transactions were announced.
+	 */
+	public MultisigPayoutResult(final Hash transferHash, final boolean multisigTransactionAnnounced, final Throwable error) {
+		this.transferHash = transferHash;
+		this.multisigTransactionAnnounced = multisigTransactionAnnounced;
+		this.error = error;
+	}
+
+	/**
+	 * Gets the hash of the inner transfer transaction.
+	 *
+	 * @return The hash.
+	 */
+	public Hash getTransferHash() {
+		return this.transferHash;
+	}
+
+	/**
+	 * Gets a value indicating whether or not the multisig transaction was accepted by the node.
+	 *
+	 * @return true if the multisig transaction was announced, false otherwise.
+	 */
+	public boolean isMultisigTransactionAnnounced() {
+		return this.multisigTransactionAnnounced;
+	}
+
+	/**
+	 * Gets the first error that occurred.
+	 *
+	 * @return The error or null if the multisig transaction and all cosignatures were announced.
+	 */
+	public Throwable getError() {
+		return this.error;
+	}
+
+	/**
+	 * Gets a value indicating whether or not the multisig transaction and all cosignatures were announced.
+	 *
+	 * @return true if the payout was announced completely, false otherwise.
+	 */
+	public boolean isSuccess() {
+		return null == this.error;
+	}
+}
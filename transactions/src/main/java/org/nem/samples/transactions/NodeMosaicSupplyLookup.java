@@ -0,0 +1,43 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.model.mosaic.MosaicId;
+import org.nem.core.model.ncc.MosaicIdSupplyPair;
+import org.nem.core.model.primitive.Supply;
+import org.nem.core.node.NodeEndpoint;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Mosaic supply lookup that queries a NIS node.
+ */
+public class NodeMosaicSupplyLookup implements MosaicSupplyLookup {
+	private final NodeEndpoint endpoint;
+
+	/**
+	 * Creates a lookup.
+	 *
+	 * @param endpoint The endpoint of the NIS node.
+	 */
+	public NodeMosaicSupplyLookup(final NodeEndpoint endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	@Override
+	public CompletableFuture<Supply> getSupply(final MosaicId mosaicId) {
+		return Globals.getConnector().getAsync(
+				this.endpoint,
+				SamplesApiId.NIS_REST_MOSAIC_SUPPLY,
+				String.format("mosaicId=%s", urlEncode(mosaicId.toString())))
+				.thenApply(d -> new MosaicIdSupplyPair(d).getSupply());
+	}
+
+	private static String urlEncode(final String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new RuntimeException("could not encode url encode string");
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.connect.HttpJsonPostRequest;
+import org.nem.core.connect.client.NisApiId;
+import org.nem.core.model.Transaction;
+import org.nem.core.model.ncc.*;
+import org.nem.core.node.NodeEndpoint;
+import org.nem.core.serialization.BinarySerializer;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transaction announcer that posts the transactions to a NIS node.
+ */
+public class NodeTransactionAnnouncer implements TransactionAnnouncer {
+	private final NodeEndpoint endpoint;
+
+	/**
+	 * Creates an announcer.
+	 *
+	 * @param endpoint The endpoint of the NIS node.
+	 */
+	public NodeTransactionAnnouncer(final NodeEndpoint endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	@Override
+	public CompletableFuture<Void> announce(final Transaction transaction) {
+		final byte[] data = BinarySerializer.serializeToBytes(transaction.asNonVerifiable());
+		final RequestAnnounce request = new RequestAnnounce(data, transaction.getSignature().getBytes());
+		return Globals.getConnector().postAsync(
+				this.endpoint,
+				NisApiId.NIS_REST_TRANSACTION_ANNOUNCE,
+				new HttpJsonPostRequest(request))
+				.thenAccept(d -> {
+					final NemAnnounceResult result = new NemAnnounceResult(d);
+					if (1 != result.getCode()) {
+						throw new TransactionRejectedException(result.getMessage());
+					}
+				});
+	}
+}
@@ -0,0 +1,126 @@
+package org.nem.samples.transactions;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Off-heap allocator for variable sized byte blocks.
+ * <br>
+ * Memory is reserved in direct buffer chunks that are never moved or released.
+ * Block sizes are rounded up to a multiple of 16 bytes and freed blocks are kept in one free list per size,
+ * so allocating and freeing are constant time and at most 15 bytes per block are wasted.
+ * The free lists are intrusive, i.e. each free block stores the address of the next free block of the same size.
+ * <br>
+ * The arena is not thread safe.
+ */
+class PayloadArena {
+	private static final int CHUNK_SHIFT = 26;
+	private static final int CHUNK_BYTES = 1 << CHUNK_SHIFT;
+	private static final int GRANULARITY = 16;
+	private static final long NONE = -1;
+
+	private final List<ByteBuffer> chunks = new ArrayList<>();
+	private final long[] freeLists;
+	private int chunkOffset = CHUNK_BYTES;
+
+	/**
+	 * Creates an arena.
+	 *
+	 * @param maxBlockSize The maximum size of a block in bytes.
+	 */
+	public PayloadArena(final int maxBlockSize) {
+		if (maxBlockSize < 0 || maxBlockSize > CHUNK_BYTES) {
+			throw new IllegalArgumentException(String.format("max block size %d is out of range", maxBlockSize));
+		}
+
+		this.freeLists = new long[sizeClass(maxBlockSize) + 1];
+		Arrays.fill(this.freeLists, NONE);
+	}
+
+	/**
+	 * Gets the number of bytes reserved in direct memory.
+	 *
+	 * @return The number of reserved bytes.
+	 */
+	public long getReservedBytes() {
+		return (long)this.chunks.size() * CHUNK_BYTES;
+	}
+
+	/**
+	 * Allocates a block.
+	 *
+	 * @param length The length of the block.
+	 * @return The address of the block.
+	 */
+	public long allocate(final int length) {
+		final int sizeClass = sizeClass(length);
+		final long address = this.freeLists[sizeClass];
+		if (NONE != address) {
+			this.freeLists[sizeClass] = this.chunk(address).getLong(offset(address));
+			return address;
+		}
+
+		final int blockSize = blockSize(sizeClass);
+		if (this.chunkOffset + blockSize > CHUNK_BYTES) {
+			this.chunks.add(ByteBuffer.allocateDirect(CHUNK_BYTES));
+			this.chunkOffset = 0;
+		}
+
+		final long newAddress = ((long)(this.chunks.size() - 1) << CHUNK_SHIFT) | this.chunkOffset;
+		this.chunkOffset += blockSize;
+		return newAddress;
+	}
+
+	/**
+	 * Frees a block.
+	 *
+	 * @param address The address of the block.
+	 * @param length The length the block was allocated with.
+	 */
+	public void free(final long address, final int length) {
+		final int sizeClass = sizeClass(length);
+		this.chunk(address).putLong(offset(address), this.freeLists[sizeClass]);
+		this.freeLists[sizeClass] = address;
+	}
+
+	/**
+	 * Writes bytes to the start of a block.
+	 *
+	 * @param address The address of the block.
+	 * @param bytes The bytes.
+	 */
+	public void write(final long address, final byte[] bytes) {
+		final ByteBuffer buffer = this.chunk(address).duplicate();
+		buffer.position(offset(address));
+		buffer.put(bytes);
+	}
+
+	/**
+	 * Reads bytes from the start of a block.
+	 *
+	 * @param address The address of the block.
+	 * @param bytes The array receiving the bytes.
+	 */
+	public void read(final long address, final byte[] bytes) {
+		final ByteBuffer buffer = this.chunk(address).duplicate();
+		buffer.position(offset(address));
+		buffer.get(bytes);
+	}
+
+	private ByteBuffer chunk(final long address) {
+		return this.chunks.get((int)(address >>> CHUNK_SHIFT));
+	}
+
+	private static int offset(final long address) {
+		return (int)(address & (CHUNK_BYTES - 1));
+	}
+
+	private static int sizeClass(final int length) {
+		// every block must be able to hold the free list link
+		return Math.max(0, length - 1) / GRANULARITY;
+	}
+
+	private static int blockSize(final int sizeClass) {
+		return (sizeClass + 1) * GRANULARITY;
+	}
+}
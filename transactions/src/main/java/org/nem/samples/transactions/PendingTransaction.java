@@ -0,0 +1,66 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.Hash;
+import org.nem.core.model.Address;
+import org.nem.core.time.TimeInstant;
+
+/**
+ * An announced transaction that has neither been confirmed nor expired yet.
+ */
+public class PendingTransaction {
+	private final Hash hash;
+	private final Address sender;
+	private final TimeInstant deadline;
+	private final byte[] payload;
+
+	/**
+	 * Creates a pending transaction.
+	 *
+	 * @param hash The transaction hash.
+	 * @param sender The address of the sender.
+	 * @param deadline The transaction deadline.
+	 * @param payload The serialized transaction.
+	 */
+	public PendingTransaction(final Hash hash, final Address sender, final TimeInstant deadline, final byte[] payload) {
+		this.hash = hash;
+		this.sender = sender;
+		this.deadline = deadline;
+		this.payload = payload;
+	}
+
+	/**
+	 * Gets the transaction hash.
+	 *
+	 * @return The hash.
+	 */
+	public Hash getHash() {
+		return this.hash;
+	}
+
+	/**
+	 * Gets the address of the sender.
+	 *
+	 * @return The sender.
+	 */
+	public Address getSender() {
+		return this.sender;
+	}
+
+	/**
+	 * Gets the transaction deadline.
+	 *
+	 * @return The deadline.
+	 */
+	public TimeInstant getDeadline() {
+		return this.deadline;
+	}
+
+	/**
+	 * Gets the serialized transaction.
+	 *
+	 * @return The payload.
+	 */
+	public byte[] getPayload() {
+		return this.payload;
+	}
+}
@@ -0,0 +1,474 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.Hash;
+import org.nem.core.model.*;
+import org.nem.core.serialization.BinarySerializer;
+import org.nem.core.time.TimeInstant;
+
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Off-heap store for announced transactions that are waiting for confirmation.
+ * <br>
+ * Entries live in direct memory in an open-addressed (linear probing) table keyed by transaction hash.
+ * Removal shifts the following entries of the probe sequence back, so the table never contains tombstones and
+ * only needs to be reallocated when it grows. Payloads are kept in a separate off-heap arena and the table only
+ * stores their address and length, so no per-entry objects are kept on the heap.
+ * A binary min heap, also kept in direct memory, orders the entries by deadline so that expired transactions
+ * can be removed without scanning the table. Each slot remembers its position in the heap, which makes removal
+ * on confirmation a constant time lookup followed by a logarithmic heap fix up.
+ * <br>
+ * Direct memory is limited by -XX:MaxDirectMemorySize, which defaults to the maximum heap size.
+ * To keep the heap small, set it explicitly to roughly expectedSize * 200 bytes plus the total payload size.
+ * Passing a realistic expected size avoids reallocating the table while the store fills up.
+ * <br>
+ * The store is thread safe.
+ */
+public class PendingTransactionStore {
+	private static final int HASH_SIZE = 32;
+	private static final int ADDRESS_SIZE = 40;
+
+	private static final byte EMPTY = 0;
+	private static final byte OCCUPIED = 1;
+
+	// slot layout
+	private static final int STATE_OFFSET = 0;
+	private static final int HEAP_INDEX_OFFSET = 4;
+	private static final int DEADLINE_OFFSET = 8;
+	private static final int PAYLOAD_LENGTH_OFFSET = 12;
+	private static final int PAYLOAD_ADDRESS_OFFSET = 16;
+	private static final int HASH_OFFSET = 24;
+	private static final int SENDER_OFFSET = HASH_OFFSET + HASH_SIZE;
+	private static final int SLOT_SIZE = SENDER_OFFSET + ADDRESS_SIZE;
+
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 27;
+	private static final int SLOTS_PER_CHUNK = Integer.highestOneBit((1 << 30) / SLOT_SIZE);
+	private static final double LOAD_FACTOR = 0.75;
+
+	private final int maxPayloadSize;
+	private final PayloadArena arena;
+
+	private int capacity;
+	private int chunkShift;
+	private ByteBuffer[] chunks;
+	private LongBuffer heap;
+	private int size;
+
+	/**
+	 * Creates a store.
+	 *
+	 * @param expectedSize The expected number of pending transactions.
+	 * @param maxPayloadSize The maximum size of a serialized transaction in bytes.
+	 */
+	public PendingTransactionStore(final int expectedSize, final int maxPayloadSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("expected size must not be negative");
+		}
+
+		this.maxPayloadSize = maxPayloadSize;
+		this.arena = new PayloadArena(maxPayloadSize);
+		this.allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * Gets the number of pending transactions.
+	 *
+	 * @return The number of pending transactions.
+	 */
+	public synchronized int size() {
+		return this.size;
+	}
+
+	/**
+	 * Adds a signed transaction.
+	 *
+	 * @param transaction The transaction.
+	 * @return true if the transaction was added, false if it was already pending.
+	 */
+	public boolean add(final Transaction transaction) {
+		return this.add(
+				HashUtils.calculateHash(transaction),
+				transaction.getSigner().getAddress(),
+				transaction.getDeadline(),
+				BinarySerializer.serializeToBytes(transaction));
+	}
+
+	/**
+	 * Adds a pending transaction.
+	 *
+	 * @param hash The transaction hash.
+	 * @param sender The address of the sender.
+	 * @param deadline The transaction deadline.
+	 * @param payload The serialized transaction.
+	 * @return true if the transaction was added, false if it was already pending.
+	 */
+	public synchronized boolean add(final Hash hash, final Address sender, final TimeInstant deadline, final byte[] payload) {
+		final byte[] rawHash = checkHash(hash);
+		final byte[] rawSender = sender.getEncoded().getBytes(StandardCharsets.US_ASCII);
+		if (ADDRESS_SIZE != rawSender.length) {
+			throw new IllegalArgumentException(String.format("sender address %s has unexpected length", sender));
+		}
+
+		if (payload.length > this.maxPayloadSize) {
+			throw new IllegalArgumentException(String.format(
+					"payload of %d bytes exceeds the maximum of %d bytes",
+					payload.length,
+					this.maxPayloadSize));
+		}
+
+		if (-1 != this.find(rawHash)) {
+			return false;
+		}
+
+		if (this.size + 1 > (long)(this.capacity * LOAD_FACTOR)) {
+			this.grow();
+		}
+
+		final long payloadAddress = this.arena.allocate(payload.length);
+		this.arena.write(payloadAddress, payload);
+
+		final int slot = this.insertionSlot(rawHash);
+		final ByteBuffer chunk = this.chunk(slot);
+		final int offset = this.offset(slot);
+		chunk.put(offset + STATE_OFFSET, OCCUPIED);
+		chunk.putInt(offset + DEADLINE_OFFSET, deadline.getRawTime());
+		chunk.putInt(offset + PAYLOAD_LENGTH_OFFSET, payload.length);
+		chunk.putLong(offset + PAYLOAD_ADDRESS_OFFSET, payloadAddress);
+		put(chunk, offset + HASH_OFFSET, rawHash);
+		put(chunk, offset + SENDER_OFFSET, rawSender);
+		this.heapPush(deadline.getRawTime(), slot);
+		++this.size;
+		return true;
+	}
+
+	/**
+	 * Gets a value indicating whether or not a transaction is pending.
+	 *
+	 * @param hash The transaction hash.
+	 * @return true if the transaction is pending, false otherwise.
+	 */
+	public synchronized boolean contains(final Hash hash) {
+		return -1 != this.find(checkHash(hash));
+	}
+
+	/**
+	 * Gets a pending transaction.
+	 *
+	 * @param hash The transaction hash.
+	 * @return The pending transaction or null if no transaction with the given hash is pending.
+	 */
+	public synchronized PendingTransaction get(final Hash hash) {
+		final int slot = this.find(checkHash(hash));
+		return -1 == slot ? null : this.read(slot);
+	}
+
+	/**
+	 * Removes a transaction, typically because it got confirmed.
+	 *
+	 * @param hash The transaction hash.
+	 * @return true if the transaction was removed, false if it was not pending.
+	 */
+	public synchronized boolean remove(final Hash hash) {
+		final int slot = this.find(checkHash(hash));
+		if (-1 == slot) {
+			return false;
+		}
+
+		this.heapRemove(this.chunk(slot).getInt(this.offset(slot) + HEAP_INDEX_OFFSET));
+		this.delete(slot);
+		return true;
+	}
+
+	/**
+	 * Gets the earliest deadline of all pending transactions.
+	 *
+	 * @return The earliest deadline or null if the store is empty.
+	 */
+	public synchronized TimeInstant getEarliestDeadline() {
+		return 0 == this.size ? null : new TimeInstant(deadlineOf(this.heap.get(0)));
+	}
+
+	/**
+	 * Removes all transactions with a deadline before the given time instant.
+	 *
+	 * @param timeInstant The current time instant.
+	 * @return The removed transactions in deadline order.
+	 */
+	public synchronized List<PendingTransaction> removeExpired(final TimeInstant timeInstant) {
+		final List<PendingTransaction> expired = new ArrayList<>();
+		while (0 != this.size && deadlineOf(this.heap.get(0)) < timeInstant.getRawTime()) {
+			final int slot = slotOf(this.heap.get(0));
+			expired.add(this.read(slot));
+			this.heapRemove(0);
+			this.delete(slot);
+		}
+
+		return expired;
+	}
+
+	//region table
+
+	private void allocate(final int capacity) {
+		final int slotsPerChunk = Math.min(capacity, SLOTS_PER_CHUNK);
+		this.capacity = capacity;
+		this.chunkShift = Integer.numberOfTrailingZeros(slotsPerChunk);
+		this.chunks = new ByteBuffer[capacity / slotsPerChunk];
+		for (int i = 0; i < this.chunks.length; ++i) {
+			this.chunks[i] = ByteBuffer.allocateDirect(slotsPerChunk * SLOT_SIZE);
+		}
+
+		this.heap = ByteBuffer.allocateDirect(capacity * 8).asLongBuffer();
+		this.size = 0;
+	}
+
+	private void grow() {
+		if (this.capacity >= MAX_CAPACITY) {
+			throw new IllegalStateException("pending transaction store is full");
+		}
+
+		final ByteBuffer[] oldChunks = this.chunks;
+		final int oldCapacity = this.capacity;
+		final int oldChunkShift = this.chunkShift;
+		this.allocate(oldCapacity << 1);
+
+		final byte[] rawHash = new byte[HASH_SIZE];
+		final int oldSlotMask = (1 << oldChunkShift) - 1;
+		for (int oldSlot = 0; oldSlot < oldCapacity; ++oldSlot) {
+			final ByteBuffer oldChunk = oldChunks[oldSlot >>> oldChunkShift];
+			final int oldOffset = (oldSlot & oldSlotMask) * SLOT_SIZE;
+			if (OCCUPIED != oldChunk.get(oldOffset + STATE_OFFSET)) {
+				continue;
+			}
+
+			get(oldChunk, oldOffset + HASH_OFFSET, rawHash);
+			final int slot = this.insertionSlot(rawHash);
+			copy(oldChunk, oldOffset, this.chunk(slot), this.offset(slot));
+			this.heapPush(oldChunk.getInt(oldOffset + DEADLINE_OFFSET), slot);
+			++this.size;
+		}
+	}
+
+	private int find(final byte[] rawHash) {
+		final int mask = this.capacity - 1;
+		for (int slot = home(rawHash) & mask; ; slot = (slot + 1) & mask) {
+			final ByteBuffer chunk = this.chunk(slot);
+			final int offset = this.offset(slot);
+			if (EMPTY == chunk.get(offset + STATE_OFFSET)) {
+				return -1;
+			}
+
+			if (equals(chunk, offset + HASH_OFFSET, rawHash)) {
+				return slot;
+			}
+		}
+	}
+
+	private int insertionSlot(final byte[] rawHash) {
+		final int mask = this.capacity - 1;
+		for (int slot = home(rawHash) & mask; ; slot = (slot + 1) & mask) {
+			if (EMPTY == this.chunk(slot).get(this.offset(slot) + STATE_OFFSET)) {
+				return slot;
+			}
+		}
+	}
+
+	private void delete(final int slot) {
+		final ByteBuffer chunk = this.chunk(slot);
+		final int offset = this.offset(slot);
+		this.arena.free(chunk.getLong(offset + PAYLOAD_ADDRESS_OFFSET), chunk.getInt(offset + PAYLOAD_LENGTH_OFFSET));
+
+		// shift back all following entries of the probe sequence that may move into the hole
+		final int mask = this.capacity - 1;
+		final byte[] rawHash = new byte[HASH_SIZE];
+		int hole = slot;
+		for (int next = (slot + 1) & mask; ; next = (next + 1) & mask) {
+			final ByteBuffer nextChunk = this.chunk(next);
+			final int nextOffset = this.offset(next);
+			if (EMPTY == nextChunk.get(nextOffset + STATE_OFFSET)) {
+				break;
+			}
+
+			get(nextChunk, nextOffset + HASH_OFFSET, rawHash);
+			final int home = home(rawHash) & mask;
+			if (((next - home) & mask) < ((next - hole) & mask)) {
+				// the hole lies before the home slot of the entry
+				continue;
+			}
+
+			final ByteBuffer holeChunk = this.chunk(hole);
+			final int holeOffset = this.offset(hole);
+			copy(nextChunk, nextOffset, holeChunk, holeOffset);
+			this.heapSet(holeChunk.getInt(holeOffset + HEAP_INDEX_OFFSET), entry(holeChunk.getInt(holeOffset + DEADLINE_OFFSET), hole));
+			hole = next;
+		}
+
+		this.chunk(hole).put(this.offset(hole) + STATE_OFFSET, EMPTY);
+		--this.size;
+	}
+
+	private PendingTransaction read(final int slot) {
+		final ByteBuffer chunk = this.chunk(slot);
+		final int offset = this.offset(slot);
+		final byte[] rawHash = new byte[HASH_SIZE];
+		final byte[] rawSender = new byte[ADDRESS_SIZE];
+		final byte[] payload = new byte[chunk.getInt(offset + PAYLOAD_LENGTH_OFFSET)];
+		get(chunk, offset + HASH_OFFSET, rawHash);
+		get(chunk, offset + SENDER_OFFSET, rawSender);
+		this.arena.read(chunk.getLong(offset + PAYLOAD_ADDRESS_OFFSET), payload);
+		return new PendingTransaction(
+				new Hash(rawHash),
+				Address.fromEncoded(new String(rawSender, StandardCharsets.US_ASCII)),
+				new TimeInstant(chunk.getInt(offset + DEADLINE_OFFSET)),
+				payload);
+	}
+
+	private ByteBuffer chunk(final int slot) {
+		return this.chunks[slot >>> this.chunkShift];
+	}
+
+	private int offset(final int slot) {
+		return (slot & ((1 << this.chunkShift) - 1)) * SLOT_SIZE;
+	}
+
+	//endregion
+
+	//region deadline heap
+
+	private void heapPush(final int deadline, final int slot) {
+		final int index = this.size;
+		this.heapSet(index, entry(deadline, slot));
+		this.siftUp(index);
+	}
+
+	private void heapRemove(final int index) {
+		final int last = this.size - 1;
+		if (index != last) {
+			this.heapSet(index, this.heap.get(last));
+			this.siftDown(index);
+			this.siftUp(index);
+		}
+	}
+
+	private void siftUp(int index) {
+		final long entry = this.heap.get(index);
+		while (index > 0) {
+			final int parent = (index - 1) >>> 1;
+			final long parentEntry = this.heap.get(parent);
+			if (parentEntry <= entry) {
+				break;
+			}
+
+			this.heapSet(index, parentEntry);
+			index = parent;
+		}
+
+		this.heapSet(index, entry);
+	}
+
+	private void siftDown(int index) {
+		// the heap has this.size entries, the caller is responsible for dropping the last one beforehand
+		final int heapSize = this.size - 1;
+		final long entry = this.heap.get(index);
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= heapSize) {
+				break;
+			}
+
+			if (child + 1 < heapSize && this.heap.get(child + 1) < this.heap.get(child)) {
+				++child;
+			}
+
+			final long childEntry = this.heap.get(child);
+			if (entry <= childEntry) {
+				break;
+			}
+
+			this.heapSet(index, childEntry);
+			index = child;
+		}
+
+		this.heapSet(index, entry);
+	}
+
+	private void heapSet(final int index, final long entry) {
+		this.heap.put(index, entry);
+		final int slot = slotOf(entry);
+		this.chunk(slot).putInt(this.offset(slot) + HEAP_INDEX_OFFSET, index);
+	}
+
+	private static long entry(final int deadline, final int slot) {
+		return ((long)deadline << 32) | slot;
+	}
+
+	private static int deadlineOf(final long entry) {
+		return (int)(entry >>> 32);
+	}
+
+	private static int slotOf(final long entry) {
+		return (int)entry;
+	}
+
+	//endregion
+
+	//region helpers
+
+	private static int capacityFor(final int expectedSize) {
+		final long minCapacity = Math.max(MIN_CAPACITY, (long)Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+		if (minCapacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException(String.format("expected size %d is too large", expectedSize));
+		}
+
+		return Integer.highestOneBit((int)minCapacity - 1) << 1;
+	}
+
+	private static byte[] checkHash(final Hash hash) {
+		final byte[] rawHash = hash.getRaw();
+		if (HASH_SIZE != rawHash.length) {
+			throw new IllegalArgumentException(String.format("hash %s has unexpected length", hash));
+		}
+
+		return rawHash;
+	}
+
+	private static int home(final byte[] rawHash) {
+		// transaction hashes are uniformly distributed, so the leading bytes are a good enough hash code
+		final int h = ((rawHash[0] & 0xFF) << 24) | ((rawHash[1] & 0xFF) << 16) | ((rawHash[2] & 0xFF) << 8) | (rawHash[3] & 0xFF);
+		return h ^ (h >>> 16);
+	}
+
+	private static boolean equals(final ByteBuffer chunk, final int offset, final byte[] bytes) {
+		for (int i = 0; i < bytes.length; ++i) {
+			if (chunk.get(offset + i) != bytes[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static void copy(final ByteBuffer source, final int sourceOffset, final ByteBuffer target, final int targetOffset) {
+		final ByteBuffer sourceSlot = source.duplicate();
+		sourceSlot.limit(sourceOffset + SLOT_SIZE).position(sourceOffset);
+		final ByteBuffer targetSlot = target.duplicate();
+		targetSlot.position(targetOffset);
+		targetSlot.put(sourceSlot);
+	}
+
+	private static void put(final ByteBuffer chunk, final int offset, final byte[] bytes) {
+		final ByteBuffer buffer = chunk.duplicate();
+		buffer.position(offset);
+		buffer.put(bytes);
+	}
+
+	private static void get(final ByteBuffer chunk, final int offset, final byte[] bytes) {
+		final ByteBuffer buffer = chunk.duplicate();
+		buffer.position(offset);
+		buffer.get(bytes);
+	}
+
+	//endregion
+}
@@ -3,7 +3,6 @@ package org.nem.samples.transactions;
 import org.nem.core.async.SleepFuture;
 import org.nem.core.connect.HttpJsonPostRequest;
 import org.nem.core.connect.client.*;
-import org.nem.core.crypto.*;
 import org.nem.core.model.*;
 import org.nem.core.model.namespace.*;
 import org.nem.core.model.ncc.*;
@@ -27,10 +26,11 @@ public class ProvisionNamespaceExample {
 	// Choose mijin network
 	static {
 		NetworkInfos.setDefault(NetworkInfos.fromFriendlyName("mijinnet"));
+		FastStart.start();
 	}
 
 	private static final String PRIVATE_KEY_HEX = "73eb2169a871e081bacea12e7be25a0ad284b43207e39d51d4837a54c65a28c2";
-	private static final Account SENDER = new Account(new KeyPair(PrivateKey.fromHexString(PRIVATE_KEY_HEX)));
+	private static final CompletableFuture<Account> SENDER = FastStart.deriveAccount(PRIVATE_KEY_HEX);
 
 	public static void main(String[] args) {
 		provisionNamespace();
@@ -45,7 +45,7 @@ public class ProvisionNamespaceExample {
 		final String newNamespacePart = "bank";
 		final NamespaceIdPart newPart = new NamespaceIdPart(newNamespacePart);
 		final NamespaceId parent = new NamespaceId("examples.mijin");
-		if (!createAndSend(SENDER, newPart, parent)) {
+		if (!createAndSend(SENDER.join(), newPart, parent)) {
 			LOGGER.warning("Namespace provisioning failed");
 			return;
 		}
@@ -104,7 +104,7 @@ public class ProvisionNamespaceExample {
 	}
 
 	private static CompletableFuture<Deserializer> send(final NodeEndpoint endpoint, final RequestAnnounce request) {
-		return Globals.CONNECTOR.postAsync(
+		return Globals.getConnector().postAsync(
 				endpoint,
 				NisApiId.NIS_REST_TRANSACTION_ANNOUNCE,
 				new HttpJsonPostRequest(request));
@@ -127,7 +127,7 @@ public class ProvisionNamespaceExample {
 	}
 
 	private static Namespace retrieveNamespace(final NamespaceId id) {
-		final CompletableFuture<Deserializer> future = Globals.CONNECTOR.getAsync(
+		final CompletableFuture<Deserializer> future = Globals.getConnector().getAsync(
 				Globals.MIJIN_NODE_ENDPOINT,
 				SamplesApiId.NIS_REST_NAMESPACE,
 				String.format("namespace=%s", id.toString()));
@@ -0,0 +1,141 @@
+package org.nem.samples.transactions;
+
+import org.apache.http.*;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.BufferedHttpEntity;
+import org.apache.http.util.EntityUtils;
+import org.nem.core.connect.*;
+
+import java.io.*;
+import java.net.URL;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Http method client that records every request, its response and its timing into a trace.
+ * Recording only buffers the response and queues the record, the trace is written by the trace writer's own thread.
+ *
+ * @param <T> The type of the response.
+ */
+public class RecordingHttpMethodClient<T> extends HttpMethodClient<T> {
+	private static final Logger LOGGER = Logger.getLogger(RecordingHttpMethodClient.class.getName());
+	private static final byte[] EMPTY = new byte[0];
+
+	private final TraceWriter writer;
+
+	/**
+	 * Creates a recording client.
+	 *
+	 * @param writer The trace writer.
+	 * @param connectionTimeout The connection timeout.
+	 * @param socketTimeout The socket timeout.
+	 * @param requestTimeout The request timeout.
+	 */
+	public RecordingHttpMethodClient(
+			final TraceWriter writer,
+			final int connectionTimeout,
+			final int socketTimeout,
+			final int requestTimeout) {
+		super(connectionTimeout, socketTimeout, requestTimeout);
+		this.writer = writer;
+	}
+
+	@Override
+	public AsyncToken<T> get(final URL url, final HttpResponseStrategy<T> responseStrategy) {
+		final RecordingResponseStrategy strategy = new RecordingResponseStrategy("GET", url, EMPTY, "", responseStrategy);
+		return strategy.recordFailures(super.get(url, strategy));
+	}
+
+	@Override
+	public AsyncToken<T> post(final URL url, final HttpPostRequest request, final HttpResponseStrategy<T> responseStrategy) {
+		final RecordingResponseStrategy strategy = new RecordingResponseStrategy(
+				"POST",
+				url,
+				request.getPayload(),
+				request.getContentType(),
+				responseStrategy);
+		return strategy.recordFailures(super.post(url, request, strategy));
+	}
+
+	private class RecordingResponseStrategy implements HttpResponseStrategy<T> {
+		private final long startNanos = RecordingHttpMethodClient.this.writer.elapsedNanos();
+		private final String method;
+		private final URL url;
+		private final byte[] requestPayload;
+		private final String requestContentType;
+		private final HttpResponseStrategy<T> delegate;
+		private final AtomicBoolean recorded = new AtomicBoolean();
+
+		private RecordingResponseStrategy(
+				final String method,
+				final URL url,
+				final byte[] requestPayload,
+				final String requestContentType,
+				final HttpResponseStrategy<T> delegate) {
+			this.method = method;
+			this.url = url;
+			this.requestPayload = requestPayload;
+			this.requestContentType = null == requestContentType ? "" : requestContentType;
+			this.delegate = delegate;
+		}
+
+		private AsyncToken<T> recordFailures(final AsyncToken<T> token) {
+			// transport failures (timeouts, refused connections, ...) never reach coerce
+			token.getFuture().whenComplete((response, e) -> {
+				if (null != e) {
+					final Throwable cause = e instanceof CompletionException && null != e.getCause() ? e.getCause() : e;
+					this.record(0, "", EMPTY, cause.getClass().getName());
+				}
+			});
+			return token;
+		}
+
+		@Override
+		public T coerce(final HttpRequestBase request, final HttpResponse response) {
+			try {
+				byte[] responsePayload = EMPTY;
+				String contentType = "";
+				if (null != response.getEntity()) {
+					// buffer the entity so that the delegate can still consume it
+					final HttpEntity entity = new BufferedHttpEntity(response.getEntity());
+					response.setEntity(entity);
+					responsePayload = EntityUtils.toByteArray(entity);
+					contentType = null == entity.getContentType() ? "" : entity.getContentType().getValue();
+				}
+
+				this.record(response.getStatusLine().getStatusCode(), contentType, responsePayload, "");
+			} catch (final IOException e) {
+				LOGGER.warning(String.format("could not record %s %s, reason: %s", this.method, this.url, e.getMessage()));
+			}
+
+			return this.delegate.coerce(request, response);
+		}
+
+		private void record(final int status, final String contentType, final byte[] responsePayload, final String error) {
+			// a request is recorded once, even if the delegate fails after a response was received
+			if (this.recorded.getAndSet(true)) {
+				return;
+			}
+
+			final TraceWriter writer = RecordingHttpMethodClient.this.writer;
+			writer.write(new TraceRecord(
+					this.startNanos,
+					writer.elapsedNanos() - this.startNanos,
+					this.method,
+					this.url.getPath(),
+					null == this.url.getQuery() ? "" : this.url.getQuery(),
+					this.requestPayload,
+					this.requestContentType,
+					status,
+					contentType,
+					responsePayload,
+					error));
+		}
+
+		@Override
+		public String getSupportedContentType() {
+			return this.delegate.getSupportedContentType();
+		}
+	}
+}
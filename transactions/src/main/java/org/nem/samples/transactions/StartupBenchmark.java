@@ -0,0 +1,126 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.model.*;
+import org.nem.core.model.primitive.Amount;
+import org.nem.core.time.TimeInstant;
+
+import java.io.*;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Console application measuring the start up time of the samples.
+ * <br>
+ * Every configuration is measured by launching a fresh JVM that performs the start up work of the transfer example
+ * (choosing the network, deriving the accounts, creating the connector and signing a transaction) and exits.
+ * The wall clock time of the whole process, including JVM boot, is recorded and the median is reported.
+ * <br>
+ * Usage: StartupBenchmark [runs] [cds archive]
+ * <br>
+ * If a class data sharing archive (see the appcds profile) is given, the fast start configuration is additionally
+ * measured with that archive. In that case the benchmark must be launched with the class path that was used to
+ * create the archive.
+ */
+public class StartupBenchmark {
+	private static final Logger LOGGER = Logger.getLogger(StartupBenchmark.class.getName());
+	private static final String PROBE = "probe";
+
+	// Same number of keys as the transfer example derives on start up
+	private static final List<String> PRIVATE_KEYS_HEX = Arrays.asList(
+			"73eb2169a871e081bacea12e7be25a0ad284b43207e39d51d4837a54c65a28c2",
+			"107aa7809ae79626ca18de05a737e25d006dd43ca1588ffd38be68ad51aa02eb",
+			"77844ca81b5bc2e62ada6d61465c505e675a11bef44def340cd9f40a08c733c9",
+			"08eaf329c1b07b5362977ef16820185031a19dd901326b13417c342147ca0357",
+			"d6349533992f5bac7c955b90ed1c17fd5ff5b499273d6bb0b8e77ac8388929b0",
+			"9559732458d834fcc3d10e6f5c10c877489ca7431884549a047d1890a4d97bac",
+			"9706782a6cb3d149952a63aeb1678bb2c427ff287a346f0503b0f60031f20841",
+			"54e01160ead55f9cc22f2db4467164904b00f9aa8eb62abe0fbd56f01bba030d",
+			"79c49879da24effa294f236a6e026c426cc715f0110be6ce7be84dc0e232faa0",
+			"66b2aaef981c06a293179be916f5c405fb4376a7d306d55587ad9e51c2143376"
+	);
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length > 0 && PROBE.equals(args[0])) {
+			probe();
+			System.exit(0);
+		}
+
+		final int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		if (runs < 1) {
+			LOGGER.warning("usage: StartupBenchmark [runs (at least 1)] [cds archive]");
+			System.exit(1);
+		}
+
+		final Map<String, List<String>> configurations = new LinkedHashMap<>();
+		configurations.put("default", Collections.emptyList());
+		configurations.put("fast start", Collections.singletonList("-Dnem.samples.fastStart=true"));
+		if (args.length > 1) {
+			configurations.put("fast start + cds", Arrays.asList(
+					"-Dnem.samples.fastStart=true",
+					"-Xshare:auto",
+					"-XX:SharedArchiveFile=" + args[1]));
+		}
+
+		for (final Map.Entry<String, List<String>> entry : configurations.entrySet()) {
+			// first run only warms up the OS file cache
+			launch(entry.getValue());
+			final long[] timings = new long[runs];
+			for (int i = 0; i < runs; ++i) {
+				timings[i] = launch(entry.getValue());
+			}
+
+			Arrays.sort(timings);
+			LOGGER.info(String.format("%s: median start up time %d ms (min %d ms, max %d ms, %d runs)",
+					entry.getKey(),
+					timings[runs / 2],
+					timings[0],
+					timings[runs - 1],
+					runs));
+		}
+	}
+
+	private static long launch(final List<String> jvmOptions) throws IOException, InterruptedException {
+		final List<String> command = new ArrayList<>();
+		command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+		command.addAll(jvmOptions);
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(StartupBenchmark.class.getName());
+		command.add(PROBE);
+
+		final long start = System.nanoTime();
+		final Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		try (final InputStream stream = process.getInputStream()) {
+			final byte[] buffer = new byte[4096];
+			while (-1 != stream.read(buffer)) {
+				// discard the output
+			}
+		}
+
+		if (0 != process.waitFor()) {
+			throw new IllegalStateException(String.format("start up probe failed: %s", command));
+		}
+
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+
+	// Does the same start up work as the transfer example but does not send anything.
+	private static void probe() {
+		NetworkInfos.setDefault(NetworkInfos.fromFriendlyName("mijinnet"));
+		FastStart.start();
+		final List<Account> accounts = FastStart.deriveAccounts(PRIVATE_KEYS_HEX).join();
+		Globals.getConnector();
+
+		final TimeInstant timeInstant = Globals.TIME_PROVIDER.getCurrentTime();
+		final TransferTransaction transaction = new TransferTransaction(
+				2,
+				timeInstant,
+				accounts.get(0),
+				accounts.get(1),
+				Amount.fromMicroNem(1),
+				null);
+		transaction.setFee(Amount.fromNem(200));
+		transaction.setDeadline(timeInstant.addHours(23));
+		transaction.sign();
+	}
+}
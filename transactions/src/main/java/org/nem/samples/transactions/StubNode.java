@@ -0,0 +1,118 @@
+package org.nem.samples.transactions;
+
+import com.sun.net.httpserver.*;
+import org.apache.commons.io.IOUtils;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local http server that answers requests with the responses recorded in a trace.
+ * <br>
+ * Requests are matched by method, path, query and payload. Identical requests receive the recorded responses in
+ * recording order. Requests that are not part of the trace are answered with 404.
+ * Requests that failed without a response during recording are answered by closing the connection without a response,
+ * after stalling for the recorded duration if responses are delayed.
+ */
+public class StubNode implements Closeable {
+	private final Map<String, Queue<TraceRecord>> responses = new ConcurrentHashMap<>();
+	private final boolean delayResponses;
+	private final AtomicInteger numUnmatched = new AtomicInteger();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final HttpServer server;
+
+	/**
+	 * Creates and starts a stub node.
+	 *
+	 * @param records The recorded traffic.
+	 * @param port The port to listen on (0 for any free port).
+	 * @param delayResponses true if responses should be delayed by the recorded duration.
+	 * @throws IOException if the server cannot be started.
+	 */
+	public StubNode(final List<TraceRecord> records, final int port, final boolean delayResponses) throws IOException {
+		for (final TraceRecord record : records) {
+			this.responses.computeIfAbsent(
+					key(record.getMethod(), record.getPath(), record.getQuery(), record.getRequestPayload()),
+					k -> new ConcurrentLinkedQueue<>()).add(record);
+		}
+
+		this.delayResponses = delayResponses;
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+		this.server.createContext("/", this::handle);
+		this.server.setExecutor(this.executor);
+		this.server.start();
+	}
+
+	/**
+	 * Gets the port the stub node is listening on.
+	 *
+	 * @return The port.
+	 */
+	public int getPort() {
+		return this.server.getAddress().getPort();
+	}
+
+	/**
+	 * Gets the number of requests that did not match any recorded request.
+	 *
+	 * @return The number of unmatched requests.
+	 */
+	public int getNumUnmatched() {
+		return this.numUnmatched.get();
+	}
+
+	@Override
+	public void close() {
+		this.server.stop(0);
+		this.executor.shutdownNow();
+	}
+
+	private void handle(final HttpExchange exchange) throws IOException {
+		try {
+			final String query = exchange.getRequestURI().getRawQuery();
+			final TraceRecord record = this.poll(key(
+					exchange.getRequestMethod(),
+					exchange.getRequestURI().getRawPath(),
+					null == query ? "" : query,
+					IOUtils.toByteArray(exchange.getRequestBody())));
+			if (null == record) {
+				this.numUnmatched.incrementAndGet();
+				exchange.sendResponseHeaders(404, -1);
+				return;
+			}
+
+			if (this.delayResponses) {
+				TimeUnit.NANOSECONDS.sleep(record.getDurationNanos());
+			}
+
+			if (record.isFailure()) {
+				// closing the exchange before sending response headers closes the connection
+				return;
+			}
+
+			if (!record.getContentType().isEmpty()) {
+				exchange.getResponseHeaders().set("Content-Type", record.getContentType());
+			}
+
+			final byte[] payload = record.getResponsePayload();
+			exchange.sendResponseHeaders(record.getStatus(), 0 == payload.length ? -1 : payload.length);
+			exchange.getResponseBody().write(payload);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private TraceRecord poll(final String key) {
+		final Queue<TraceRecord> queue = this.responses.get(key);
+		return null == queue ? null : queue.poll();
+	}
+
+	private static String key(final String method, final String path, final String query, final byte[] payload) {
+		return String.format("%s %s?%s %s", method, path, query, Base64.getEncoder().encodeToString(payload));
+	}
+}
@@ -0,0 +1,91 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.crypto.Hash;
+import org.nem.core.model.primitive.Supply;
+import org.nem.core.time.TimeInstant;
+
+/**
+ * The reconciliation state of a single mosaic.
+ * <br>
+ * An entry is either verified, meaning the supply on chain was seen to match the target, or pending, meaning a
+ * supply change towards the target was announced but has not been verified yet.
+ */
+public class SupplyCheckpointEntry {
+	private final Supply target;
+	private final Hash pendingTransactionHash;
+	private final TimeInstant pendingDeadline;
+
+	private SupplyCheckpointEntry(final Supply target, final Hash pendingTransactionHash, final TimeInstant pendingDeadline) {
+		this.target = target;
+		this.pendingTransactionHash = pendingTransactionHash;
+		this.pendingDeadline = pendingDeadline;
+	}
+
+	/**
+	 * Creates an entry for a target that was seen on chain.
+	 *
+	 * @param target The target supply.
+	 * @return The entry.
+	 */
+	public static SupplyCheckpointEntry verified(final Supply target) {
+		return new SupplyCheckpointEntry(target, null, null);
+	}
+
+	/**
+	 * Creates an entry for an announced supply change.
+	 *
+	 * @param target The target supply.
+	 * @param transactionHash The hash of the supply change transaction.
+	 * @param deadline The deadline of the supply change transaction.
+	 * @return The entry.
+	 */
+	public static SupplyCheckpointEntry pending(final Supply target, final Hash transactionHash, final TimeInstant deadline) {
+		return new SupplyCheckpointEntry(target, transactionHash, deadline);
+	}
+
+	/**
+	 * Gets the target supply.
+	 *
+	 * @return The target supply.
+	 */
+	public Supply getTarget() {
+		return this.target;
+	}
+
+	/**
+	 * Gets the hash of the pending supply change transaction.
+	 *
+	 * @return The hash or null if the entry is verified.
+	 */
+	public Hash getPendingTransactionHash() {
+		return this.pendingTransactionHash;
+	}
+
+	/**
+	 * Gets the deadline of the pending supply change transaction.
+	 *
+	 * @return The deadline or null if the entry is verified.
+	 */
+	public TimeInstant getPendingDeadline() {
+		return this.pendingDeadline;
+	}
+
+	/**
+	 * Gets a value indicating whether or not a supply change was announced but not verified yet.
+	 *
+	 * @return true if the entry is pending, false if it is verified.
+	 */
+	public boolean isPending() {
+		return null != this.pendingTransactionHash;
+	}
+
+	/**
+	 * Gets a value indicating whether or not the pending supply change can still be included in a block.
+	 *
+	 * @param timeInstant The current time instant.
+	 * @return true if the entry is pending and its deadline has not passed yet.
+	 */
+	public boolean isPendingAt(final TimeInstant timeInstant) {
+		return this.isPending() && timeInstant.compareTo(this.pendingDeadline) < 0;
+	}
+}
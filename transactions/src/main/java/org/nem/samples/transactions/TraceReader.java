@@ -0,0 +1,64 @@
+package org.nem.samples.transactions;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads trace files written by the trace writer. Traces of version 2 can still be read.
+ */
+public class TraceReader {
+	private static final short MIN_VERSION = 2;
+
+	/**
+	 * Reads all records of a trace file.
+	 *
+	 * @param file The trace file.
+	 * @return The records in the order they were written. A truncated last record is dropped.
+	 * @throws IOException if the file cannot be read or is not a trace file.
+	 */
+	public static List<TraceRecord> readAll(final File file) throws IOException {
+		try (final DataInputStream stream = new DataInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(file))))) {
+			if (TraceWriter.MAGIC != stream.readInt()) {
+				throw new IOException(String.format("%s is not a trace file", file));
+			}
+
+			final short version = stream.readShort();
+			if (version < MIN_VERSION || version > TraceWriter.VERSION) {
+				throw new IOException(String.format("%s has unsupported trace version %d", file, version));
+			}
+
+			final List<TraceRecord> records = new ArrayList<>();
+			while (true) {
+				try {
+					records.add(readRecord(stream, version));
+				} catch (final EOFException e) {
+					// end of the trace or a record cut off because the recording process was killed
+					return records;
+				}
+			}
+		}
+	}
+
+	private static TraceRecord readRecord(final DataInputStream stream, final short version) throws IOException {
+		return new TraceRecord(
+				stream.readLong(),
+				stream.readLong(),
+				stream.readUTF(),
+				stream.readUTF(),
+				stream.readUTF(),
+				readBytes(stream),
+				// version 2 did not record the request content type
+				version < 3 ? "" : stream.readUTF(),
+				stream.readUnsignedShort(),
+				stream.readUTF(),
+				readBytes(stream),
+				stream.readUTF());
+	}
+
+	private static byte[] readBytes(final DataInputStream stream) throws IOException {
+		final byte[] bytes = new byte[stream.readInt()];
+		stream.readFully(bytes);
+		return bytes;
+	}
+}
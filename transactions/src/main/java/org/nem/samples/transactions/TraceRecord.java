@@ -0,0 +1,166 @@
+package org.nem.samples.transactions;
+
+/**
+ * A single recorded request to a NIS node together with its response and timing.
+ */
+public class TraceRecord {
+	private final long startNanos;
+	private final long durationNanos;
+	private final String method;
+	private final String path;
+	private final String query;
+	private final byte[] requestPayload;
+	private final String requestContentType;
+	private final int status;
+	private final String contentType;
+	private final byte[] responsePayload;
+	private final String error;
+
+	/**
+	 * Creates a trace record.
+	 *
+	 * @param startNanos The start of the request in nanoseconds relative to the start of the trace.
+	 * @param durationNanos The time in nanoseconds until the response was received.
+	 * @param method The http method.
+	 * @param path The request path.
+	 * @param query The request query (empty if there is none).
+	 * @param requestPayload The request payload (empty for get requests).
+	 * @param requestContentType The content type of the request (empty for get requests).
+	 * @param status The http status code of the response.
+	 * @param contentType The content type of the response (empty if there is none).
+	 * @param responsePayload The response payload.
+	 * @param error The class name of the exception if no response was received (empty otherwise).
+	 */
+	public TraceRecord(
+			final long startNanos,
+			final long durationNanos,
+			final String method,
+			final String path,
+			final String query,
+			final byte[] requestPayload,
+			final String requestContentType,
+			final int status,
+			final String contentType,
+			final byte[] responsePayload,
+			final String error) {
+		this.startNanos = startNanos;
+		this.durationNanos = durationNanos;
+		this.method = method;
+		this.path = path;
+		this.query = query;
+		this.requestPayload = requestPayload;
+		this.requestContentType = requestContentType;
+		this.status = status;
+		this.contentType = contentType;
+		this.responsePayload = responsePayload;
+		this.error = error;
+	}
+
+	/**
+	 * Gets the start of the request relative to the start of the trace.
+	 *
+	 * @return The start in nanoseconds.
+	 */
+	public long getStartNanos() {
+		return this.startNanos;
+	}
+
+	/**
+	 * Gets the time until the response was received.
+	 *
+	 * @return The duration in nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return this.durationNanos;
+	}
+
+	/**
+	 * Gets the http method.
+	 *
+	 * @return The method.
+	 */
+	public String getMethod() {
+		return this.method;
+	}
+
+	/**
+	 * Gets the request path.
+	 *
+	 * @return The path.
+	 */
+	public String getPath() {
+		return this.path;
+	}
+
+	/**
+	 * Gets the request query.
+	 *
+	 * @return The query (empty if there is none).
+	 */
+	public String getQuery() {
+		return this.query;
+	}
+
+	/**
+	 * Gets the request payload.
+	 *
+	 * @return The payload (empty for get requests).
+	 */
+	public byte[] getRequestPayload() {
+		return this.requestPayload;
+	}
+
+	/**
+	 * Gets the content type of the request.
+	 *
+	 * @return The content type (empty for get requests and traces that did not record it).
+	 */
+	public String getRequestContentType() {
+		return this.requestContentType;
+	}
+
+	/**
+	 * Gets the http status code of the response.
+	 *
+	 * @return The status code (0 if no response was received).
+	 */
+	public int getStatus() {
+		return this.status;
+	}
+
+	/**
+	 * Gets the content type of the response.
+	 *
+	 * @return The content type (empty if there is none).
+	 */
+	public String getContentType() {
+		return this.contentType;
+	}
+
+	/**
+	 * Gets the response payload.
+	 *
+	 * @return The payload.
+	 */
+	public byte[] getResponsePayload() {
+		return this.responsePayload;
+	}
+
+	/**
+	 * Gets the class name of the exception that occurred instead of a response.
+	 *
+	 * @return The class name (empty if a response was received).
+	 */
+	public String getError() {
+		return this.error;
+	}
+
+	/**
+	 * Gets a value indicating whether or not a response was received.
+	 *
+	 * @return true if the request failed without a response, false otherwise.
+	 */
+	public boolean isFailure() {
+		return !this.error.isEmpty();
+	}
+}
@@ -0,0 +1,164 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.connect.HttpPostRequest;
+import org.nem.core.connect.client.DefaultAsyncNemConnector;
+import org.nem.core.node.*;
+import org.nem.core.serialization.Deserializer;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Console application replaying a trace recorded with -Dnem.samples.captureFile against a local stub node.
+ * <br>
+ * The requests are sent through the regular connector, so replaying the same trace with different client versions
+ * compares them on an identical workload. In original speed mode the requests are sent at their recorded offsets and
+ * the stub node delays every response by the recorded duration. In fast mode all requests are sent immediately and
+ * answered without delay.
+ * <br>
+ * Usage: TraceReplay &lt;trace file&gt; [original|fast]
+ */
+public class TraceReplay {
+	private static final Logger LOGGER = Logger.getLogger(TraceReplay.class.getName());
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 1) {
+			LOGGER.warning("usage: TraceReplay <trace file> [original|fast]");
+			System.exit(1);
+		}
+
+		final List<TraceRecord> records = TraceReader.readAll(new File(args[0]));
+		final boolean originalSpeed = args.length < 2 || "original".equals(args[1]);
+		LOGGER.info(String.format("replaying %d requests (%d recorded without response) in %s mode",
+				records.size(),
+				records.stream().filter(TraceRecord::isFailure).count(),
+				originalSpeed ? "original speed" : "fast"));
+
+		try (final StubNode stubNode = new StubNode(records, 0, originalSpeed)) {
+			final NodeEndpoint endpoint = new NodeEndpoint("http", "127.0.0.1", stubNode.getPort());
+			replay(Globals.getConnector(), endpoint, records, originalSpeed);
+			LOGGER.info(String.format("%d requests did not match the trace", stubNode.getNumUnmatched()));
+		}
+
+		LOGGER.info("finished");
+		System.exit(0);
+	}
+
+	private static void replay(
+			final DefaultAsyncNemConnector<ApiId> connector,
+			final NodeEndpoint endpoint,
+			final List<TraceRecord> records,
+			final boolean originalSpeed) throws InterruptedException {
+		final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		final CountDownLatch latch = new CountDownLatch(records.size());
+		final AtomicInteger numFailed = new AtomicInteger();
+		final long[] latencies = new long[records.size()];
+		final long startNanos = System.nanoTime();
+		for (int i = 0; i < records.size(); ++i) {
+			final int index = i;
+			final TraceRecord record = records.get(i);
+			final Runnable request = () -> {
+				final long requestStartNanos = System.nanoTime();
+				final CompletableFuture<Deserializer> future;
+				try {
+					future = send(connector, endpoint, record);
+				} catch (final RuntimeException e) {
+					// e.g. a recorded path or query that does not form a valid url
+					LOGGER.warning(String.format("could not send %s %s, reason: %s", record.getMethod(), record.getPath(), e.getMessage()));
+					numFailed.incrementAndGet();
+					latch.countDown();
+					return;
+				}
+
+				future.whenComplete((d, e) -> {
+					latencies[index] = System.nanoTime() - requestStartNanos;
+					if (null != e) {
+						numFailed.incrementAndGet();
+					}
+
+					latch.countDown();
+				});
+			};
+
+			if (originalSpeed) {
+				scheduler.schedule(request, startNanos + record.getStartNanos() - System.nanoTime(), TimeUnit.NANOSECONDS);
+			} else {
+				request.run();
+			}
+		}
+
+		latch.await();
+		final long elapsedNanos = System.nanoTime() - startNanos;
+		scheduler.shutdown();
+
+		// the latch makes the latencies written by the completing threads visible
+		Arrays.sort(latencies);
+
+		LOGGER.info(String.format("%d requests (%d failed) in %d ms, latency p50 %.1f ms, p90 %.1f ms, p99 %.1f ms, max %.1f ms",
+				records.size(),
+				numFailed.get(),
+				elapsedNanos / 1_000_000,
+				percentile(latencies, 50),
+				percentile(latencies, 90),
+				percentile(latencies, 99),
+				percentile(latencies, 100)));
+	}
+
+	private static CompletableFuture<Deserializer> send(
+			final DefaultAsyncNemConnector<ApiId> connector,
+			final NodeEndpoint endpoint,
+			final TraceRecord record) {
+		final ApiId apiId = new PathApiId(record.getPath());
+		if ("POST".equals(record.getMethod())) {
+			return connector.postAsync(endpoint, apiId, new RawPostRequest(record.getRequestPayload(), record.getRequestContentType()));
+		}
+
+		return connector.getAsync(endpoint, apiId, record.getQuery().isEmpty() ? null : record.getQuery());
+	}
+
+	private static double percentile(final long[] sortedNanos, final int percentile) {
+		if (0 == sortedNanos.length) {
+			return 0;
+		}
+
+		final int index = Math.min(sortedNanos.length - 1, sortedNanos.length * percentile / 100);
+		return sortedNanos[index] / 1_000_000.0;
+	}
+
+	private static class PathApiId implements ApiId {
+		private final String path;
+
+		private PathApiId(final String path) {
+			this.path = path;
+		}
+
+		@Override
+		public String toString() {
+			return this.path;
+		}
+	}
+
+	private static class RawPostRequest implements HttpPostRequest {
+		private final byte[] payload;
+		private final String contentType;
+
+		private RawPostRequest(final byte[] payload, final String contentType) {
+			this.payload = payload;
+			this.contentType = contentType;
+		}
+
+		@Override
+		public byte[] getPayload() {
+			return this.payload;
+		}
+
+		@Override
+		public String getContentType() {
+			// traces of version 2 did not record the content type, all NIS post requests of that time were json
+			return this.contentType.isEmpty() ? "application/json" : this.contentType;
+		}
+	}
+}
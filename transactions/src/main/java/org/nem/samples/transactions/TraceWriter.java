@@ -0,0 +1,169 @@
+package org.nem.samples.transactions;
+
+import java.io.*;
+import java.util.concurrent.*;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes trace records to a gzip compressed binary trace file.
+ * <br>
+ * The file starts with a magic number and a version followed by the records. Each record is written as
+ * start (long), duration (long), method, path, query (utf), request payload (int length + bytes),
+ * request content type (utf), status (short), content type (utf), response payload (int length + bytes) and
+ * error (utf). Requests that failed without a response have status 0 and the class name of the exception as error.
+ * <br>
+ * Records are queued and written by a single background thread, so recording never blocks the threads
+ * completing the requests on disk I/O. The stream is flushed whenever the queue runs empty, so a trace of a process
+ * that was killed can still be read up to the last complete record that was flushed.
+ */
+public class TraceWriter implements Closeable {
+	private static final Logger LOGGER = Logger.getLogger(TraceWriter.class.getName());
+	private static final TraceRecord END = new TraceRecord(0, 0, "", "", "", new byte[0], "", 0, "", new byte[0], "");
+
+	static final int MAGIC = 0x4E454D54; // "NEMT"
+	static final short VERSION = 3;
+
+	private final long startNanos = System.nanoTime();
+	private final DataOutputStream stream;
+	private final BlockingQueue<TraceRecord> queue = new LinkedBlockingQueue<>();
+	private final Thread thread;
+	private long numQueued;
+	private long numWritten;
+	private boolean closed;
+
+	/**
+	 * Creates a trace writer.
+	 *
+	 * @param file The trace file.
+	 * @throws IOException if the file cannot be created.
+	 */
+	public TraceWriter(final File file) throws IOException {
+		this.stream = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(file)), true));
+		this.stream.writeInt(MAGIC);
+		this.stream.writeShort(VERSION);
+		this.stream.flush();
+
+		this.thread = new Thread(this::run, "trace-writer");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Gets the current time in nanoseconds relative to the start of the trace.
+	 *
+	 * @return The elapsed nanoseconds.
+	 */
+	public long elapsedNanos() {
+		return System.nanoTime() - this.startNanos;
+	}
+
+	/**
+	 * Queues a record for writing. Records written after the writer was closed are dropped.
+	 *
+	 * @param record The record.
+	 */
+	public void write(final TraceRecord record) {
+		synchronized (this) {
+			if (this.closed) {
+				return;
+			}
+
+			++this.numQueued;
+		}
+
+		this.queue.add(record);
+	}
+
+	/**
+	 * Waits until all records queued so far are written and flushed.
+	 *
+	 * @throws InterruptedException if the calling thread is interrupted.
+	 */
+	public synchronized void flush() throws InterruptedException {
+		final long target = this.numQueued;
+		while (this.numWritten < target && this.thread.isAlive()) {
+			this.wait(100);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			if (this.closed) {
+				return;
+			}
+
+			this.closed = true;
+		}
+
+		this.queue.add(END);
+		try {
+			this.thread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		this.stream.close();
+	}
+
+	private void run() {
+		try {
+			while (true) {
+				// write everything that is queued and flush once the queue is empty
+				TraceRecord record = this.queue.take();
+				int numRecords = 0;
+				while (null != record) {
+					if (END == record) {
+						this.flushStream(numRecords);
+						return;
+					}
+
+					this.writeRecord(record);
+					++numRecords;
+					record = this.queue.poll();
+				}
+
+				this.flushStream(numRecords);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void writeRecord(final TraceRecord record) {
+		try {
+			this.stream.writeLong(record.getStartNanos());
+			this.stream.writeLong(record.getDurationNanos());
+			this.stream.writeUTF(record.getMethod());
+			this.stream.writeUTF(record.getPath());
+			this.stream.writeUTF(record.getQuery());
+			writeBytes(this.stream, record.getRequestPayload());
+			this.stream.writeUTF(record.getRequestContentType());
+			this.stream.writeShort(record.getStatus());
+			this.stream.writeUTF(record.getContentType());
+			writeBytes(this.stream, record.getResponsePayload());
+			this.stream.writeUTF(record.getError());
+		} catch (final IOException e) {
+			LOGGER.warning(String.format("could not record %s %s, reason: %s", record.getMethod(), record.getPath(), e.getMessage()));
+		}
+	}
+
+	private void flushStream(final int numRecords) {
+		try {
+			this.stream.flush();
+		} catch (final IOException e) {
+			LOGGER.warning(String.format("could not flush trace, reason: %s", e.getMessage()));
+		}
+
+		synchronized (this) {
+			this.numWritten += numRecords;
+			this.notifyAll();
+		}
+	}
+
+	private static void writeBytes(final DataOutputStream stream, final byte[] bytes) throws IOException {
+		stream.writeInt(bytes.length);
+		stream.write(bytes);
+	}
+}
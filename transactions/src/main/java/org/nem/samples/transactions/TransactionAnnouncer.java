@@ -0,0 +1,21 @@
+package org.nem.samples.transactions;
+
+import org.nem.core.model.Transaction;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Announces signed transactions to the network.
+ */
+@FunctionalInterface
+public interface TransactionAnnouncer {
+
+	/**
+	 * Announces a signed transaction.
+	 *
+	 * @param transaction The transaction.
+	 * @return The future that completes when the transaction was accepted and completes exceptionally otherwise
+	 * (with a TransactionRejectedException if the node rejected the transaction).
+	 */
+	CompletableFuture<Void> announce(final Transaction transaction);
+}
@@ -0,0 +1,44 @@
+package org.nem.samples.transactions;
+
+import java.util.*;
+
+/**
+ * Exception that is thrown when a node rejects an announced transaction.
+ */
+public class TransactionRejectedException extends IllegalStateException {
+	// reasons reported by a node for a transaction whose hash it already knows
+	private static final Set<String> DUPLICATE_REASONS = new HashSet<>(Arrays.asList(
+			"NEUTRAL",
+			"FAILURE_TRANSACTION_DUPLICATE",
+			"FAILURE_HASH_EXISTS"));
+
+	private final String reason;
+
+	/**
+	 * Creates an exception.
+	 *
+	 * @param reason The reason reported by the node.
+	 */
+	public TransactionRejectedException(final String reason) {
+		super(String.format("transaction was rejected, reason: %s", reason));
+		this.reason = reason;
+	}
+
+	/**
+	 * Gets the reason reported by the node.
+	 *
+	 * @return The reason.
+	 */
+	public String getReason() {
+		return this.reason;
+	}
+
+	/**
+	 * Gets a value indicating whether or not the transaction was rejected because the node already knows it.
+	 *
+	 * @return true if the transaction is a duplicate, false otherwise.
+	 */
+	public boolean isDuplicate() {
+		return DUPLICATE_REASONS.contains(this.reason);
+	}
+}
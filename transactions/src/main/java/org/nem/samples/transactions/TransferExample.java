@@ -3,7 +3,6 @@ package org.nem.samples.transactions;
 import org.nem.core.async.SleepFuture;
 import org.nem.core.connect.HttpJsonPostRequest;
 import org.nem.core.connect.client.NisApiId;
-import org.nem.core.crypto.*;
 import org.nem.core.model.*;
 import org.nem.core.model.mosaic.*;
 import org.nem.core.model.namespace.NamespaceId;
@@ -17,7 +16,6 @@ import java.security.SecureRandom;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Sample console application showing how to create transactions and publish them to the mijin network.
@@ -32,6 +30,7 @@ public class TransferExample {
 	// Choose mijin network
 	static {
 		NetworkInfos.setDefault(NetworkInfos.fromFriendlyName("mijinnet"));
+		FastStart.start();
 	}
 
 	// Private keys for the accounts as hex string
@@ -49,10 +48,7 @@ public class TransferExample {
 	);
 
 	// The accounts. Each account has approximately 1 million XEM balance.
-	private static final List<Account> ACCOUNTS = PRIVATE_KEYS_HEX.stream()
-			.map(PrivateKey::fromHexString)
-			.map(pk -> new Account(new KeyPair(pk)))
-			.collect(Collectors.toList());
+	private static final CompletableFuture<List<Account>> ACCOUNTS = FastStart.deriveAccounts(PRIVATE_KEYS_HEX);
 
 	public static void main(String[] args) {
 		sendSomeXem();
@@ -65,11 +61,13 @@ public class TransferExample {
 	// It uses the SleepFuture to create a delay of 1000ms between two transactions.
 	// If a node is flooded with transactions too hard, the ddos protection will trigger.
 	private static void sendSomeXem() {
+		final List<Account> accounts = ACCOUNTS.join();
+
 		// do some random transfers between the accounts
 		for (int i = 0; i < 10; i++) {
 			// send one transaction every second
-			final Account sender = ACCOUNTS.get(RANDOM.nextInt(10));
-			final Account recipient = ACCOUNTS.get(RANDOM.nextInt(10));
+			final Account sender = accounts.get(RANDOM.nextInt(10));
+			final Account recipient = accounts.get(RANDOM.nextInt(10));
 			final long amount = RANDOM.nextInt(1000);
 			SleepFuture.create(1000).thenAccept(v -> createAndSend(sender, recipient, amount)).join();
 		}
@@ -78,12 +76,14 @@ public class TransferExample {
 	// This method initiates 10 random mosaic transfer transactions from account 0 to a random account.
 	// Account 0 is the creator of the mosaic with id "examples.mijin * jpy" and owns enough of that mosaic.
 	private static void sendSomeMosaics() {
+		final List<Account> accounts = ACCOUNTS.join();
+
 		// do some random transfers between the accounts
 		final MosaicId mosaicId = new MosaicId(new NamespaceId("examples.mijin"), "jpy");
 		for (int i = 0; i < 10; i++) {
 			// send one transaction every second
-			final Account sender = ACCOUNTS.get(0);
-			final Account recipient = ACCOUNTS.get(1 + RANDOM.nextInt(9));
+			final Account sender = accounts.get(0);
+			final Account recipient = accounts.get(1 + RANDOM.nextInt(9));
 			final long amount = RANDOM.nextInt(1000);
 			final Mosaic mosaic = new Mosaic(mosaicId, Quantity.fromValue(amount));
 			final TransferTransactionAttachment attachment = new TransferTransactionAttachment();
@@ -174,7 +174,7 @@ public class TransferExample {
 	}
 
 	private static CompletableFuture<Deserializer> send(final NodeEndpoint endpoint, final RequestAnnounce request) {
-		return Globals.CONNECTOR.postAsync(
+		return Globals.getConnector().postAsync(
 				endpoint,
 				NisApiId.NIS_REST_TRANSACTION_ANNOUNCE,
 				new HttpJsonPostRequest(request));
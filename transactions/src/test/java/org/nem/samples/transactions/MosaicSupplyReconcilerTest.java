@@ -0,0 +1,391 @@
+package org.nem.samples.transactions;
+
+import org.hamcrest.core.*;
+import org.junit.*;
+import org.nem.core.model.*;
+import org.nem.core.model.mosaic.*;
+import org.nem.core.model.namespace.NamespaceId;
+import org.nem.core.model.primitive.Supply;
+import org.nem.core.test.Utils;
+import org.nem.core.time.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MosaicSupplyReconcilerTest {
+	private static final TimeProvider TIME_PROVIDER = new SystemTimeProvider();
+
+	//region reconcile
+
+	@Test
+	public void mosaicAtTargetIsVerifiedWithoutAnnouncing() {
+		// Arrange:
+		final TestContext context = new TestContext();
+		context.currentSupplies.put(createMosaicId(1), Supply.fromValue(100));
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, 100), new HashMap<>(), false);
+
+		// Assert:
+		Assert.assertThat(context.announced.isEmpty(), IsEqual.equalTo(true));
+		Assert.assertThat(entries.get(createMosaicId(1)).isPending(), IsEqual.equalTo(false));
+		Assert.assertThat(entries.get(createMosaicId(1)).getTarget(), IsEqual.equalTo(Supply.fromValue(100)));
+	}
+
+	@Test
+	public void mosaicBelowTargetGetsSingleCreateSupplyChange() {
+		// Assert:
+		assertSingleSupplyChange(70, 100, MosaicSupplyType.Create, 30);
+	}
+
+	@Test
+	public void mosaicAboveTargetGetsSingleDeleteSupplyChange() {
+		// Assert:
+		assertSingleSupplyChange(130, 100, MosaicSupplyType.Delete, 30);
+	}
+
+	private static void assertSingleSupplyChange(
+			final long current,
+			final long target,
+			final MosaicSupplyType expectedType,
+			final long expectedDelta) {
+		// Arrange:
+		final TestContext context = new TestContext();
+		context.currentSupplies.put(createMosaicId(1), Supply.fromValue(current));
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, target), new HashMap<>(), false);
+
+		// Assert:
+		Assert.assertThat(context.announced.size(), IsEqual.equalTo(1));
+		final MosaicSupplyChangeTransaction transaction = (MosaicSupplyChangeTransaction)context.announced.get(0);
+		Assert.assertThat(transaction.getMosaicId(), IsEqual.equalTo(createMosaicId(1)));
+		Assert.assertThat(transaction.getSupplyType(), IsEqual.equalTo(expectedType));
+		Assert.assertThat(transaction.getDelta(), IsEqual.equalTo(Supply.fromValue(expectedDelta)));
+
+		final SupplyCheckpointEntry entry = entries.get(createMosaicId(1));
+		Assert.assertThat(entry.isPending(), IsEqual.equalTo(true));
+		Assert.assertThat(entry.getPendingTransactionHash(), IsEqual.equalTo(HashUtils.calculateHash(transaction)));
+		Assert.assertThat(entry.getPendingDeadline(), IsEqual.equalTo(transaction.getDeadline()));
+	}
+
+	@Test
+	public void verifiedMosaicWithUnchangedTargetIsSkipped() {
+		// Arrange:
+		final TestContext context = new TestContext();
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = new HashMap<>();
+		checkpoint.put(createMosaicId(1), SupplyCheckpointEntry.verified(Supply.fromValue(100)));
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, 100), checkpoint, false);
+
+		// Assert:
+		Assert.assertThat(context.numLookups.get(), IsEqual.equalTo(0));
+		Assert.assertThat(entries.isEmpty(), IsEqual.equalTo(true));
+	}
+
+	@Test
+	public void verifiedMosaicIsCheckedAgainInFullVerifyMode() {
+		// Arrange: the supply drifted on chain
+		final TestContext context = new TestContext();
+		context.currentSupplies.put(createMosaicId(1), Supply.fromValue(90));
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = new HashMap<>();
+		checkpoint.put(createMosaicId(1), SupplyCheckpointEntry.verified(Supply.fromValue(100)));
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, 100), checkpoint, true);
+
+		// Assert:
+		Assert.assertThat(context.announced.size(), IsEqual.equalTo(1));
+		Assert.assertThat(entries.get(createMosaicId(1)).isPending(), IsEqual.equalTo(true));
+	}
+
+	@Test
+	public void mosaicWithLivePendingSupplyChangeIsSkippedIfSupplyChangeWasNotIncluded() {
+		// Arrange:
+		final TestContext context = new TestContext();
+		context.currentSupplies.put(createMosaicId(1), Supply.fromValue(70));
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = new HashMap<>();
+		final SupplyCheckpointEntry entry = createLivePendingEntry(100);
+		checkpoint.put(createMosaicId(1), entry);
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, 200), checkpoint, false);
+
+		// Assert:
+		Assert.assertThat(context.numLookups.get(), IsEqual.equalTo(1));
+		Assert.assertThat(context.announced.isEmpty(), IsEqual.equalTo(true));
+		Assert.assertThat(entries.get(createMosaicId(1)), IsSame.sameInstance(entry));
+	}
+
+	@Test
+	public void mosaicWithLivePendingSupplyChangeIsVerifiedIfSupplyChangeWasIncluded() {
+		// Arrange:
+		final TestContext context = new TestContext();
+		context.currentSupplies.put(createMosaicId(1), Supply.fromValue(100));
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = new HashMap<>();
+		checkpoint.put(createMosaicId(1), createLivePendingEntry(100));
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, 100), checkpoint, false);
+
+		// Assert:
+		Assert.assertThat(context.announced.isEmpty(), IsEqual.equalTo(true));
+		Assert.assertThat(entries.get(createMosaicId(1)).isPending(), IsEqual.equalTo(false));
+		Assert.assertThat(entries.get(createMosaicId(1)).getTarget(), IsEqual.equalTo(Supply.fromValue(100)));
+	}
+
+	@Test
+	public void mosaicWithLivePendingSupplyChangeGetsNewTargetIfSupplyChangeWasIncluded() {
+		// Arrange:
+		final TestContext context = new TestContext();
+		context.currentSupplies.put(createMosaicId(1), Supply.fromValue(100));
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = new HashMap<>();
+		checkpoint.put(createMosaicId(1), createLivePendingEntry(100));
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, 150), checkpoint, false);
+
+		// Assert:
+		Assert.assertThat(context.announced.size(), IsEqual.equalTo(1));
+		final MosaicSupplyChangeTransaction transaction = (MosaicSupplyChangeTransaction)context.announced.get(0);
+		Assert.assertThat(transaction.getSupplyType(), IsEqual.equalTo(MosaicSupplyType.Create));
+		Assert.assertThat(transaction.getDelta(), IsEqual.equalTo(Supply.fromValue(50)));
+		Assert.assertThat(entries.get(createMosaicId(1)).isPending(), IsEqual.equalTo(true));
+		Assert.assertThat(entries.get(createMosaicId(1)).getTarget(), IsEqual.equalTo(Supply.fromValue(150)));
+	}
+
+	@Test
+	public void mosaicWithExpiredPendingSupplyChangeIsCheckedAndVerifiedIfAtTarget() {
+		// Arrange:
+		final TestContext context = new TestContext();
+		context.currentSupplies.put(createMosaicId(1), Supply.fromValue(100));
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = new HashMap<>();
+		checkpoint.put(createMosaicId(1), SupplyCheckpointEntry.pending(Supply.fromValue(100), Utils.generateRandomHash(), new TimeInstant(1)));
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, 100), checkpoint, false);
+
+		// Assert:
+		Assert.assertThat(context.numLookups.get(), IsEqual.equalTo(1));
+		Assert.assertThat(context.announced.isEmpty(), IsEqual.equalTo(true));
+		Assert.assertThat(entries.get(createMosaicId(1)).isPending(), IsEqual.equalTo(false));
+	}
+
+	@Test
+	public void mosaicWithExpiredPendingSupplyChangeIsAnnouncedAgainIfNotAtTarget() {
+		// Arrange: the earlier supply change never made it into a block
+		final TestContext context = new TestContext();
+		context.currentSupplies.put(createMosaicId(1), Supply.fromValue(70));
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = new HashMap<>();
+		checkpoint.put(createMosaicId(1), SupplyCheckpointEntry.pending(Supply.fromValue(100), Utils.generateRandomHash(), new TimeInstant(1)));
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, 100), checkpoint, false);
+
+		// Assert:
+		Assert.assertThat(context.announced.size(), IsEqual.equalTo(1));
+		Assert.assertThat(entries.get(createMosaicId(1)).isPending(), IsEqual.equalTo(true));
+	}
+
+	@Test
+	public void failedMosaicHasNoNewCheckpointEntry() {
+		// Arrange: no supply is known for the mosaic, so the lookup fails
+		final TestContext context = new TestContext();
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = context.reconcile(createTargets(1, 100), new HashMap<>(), false);
+
+		// Assert:
+		Assert.assertThat(entries.isEmpty(), IsEqual.equalTo(true));
+	}
+
+	@Test
+	public void numberOfMosaicsInFlightIsBounded() {
+		// Arrange:
+		final ExecutorService executor = Executors.newCachedThreadPool();
+		final AtomicInteger numInFlight = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+		final MosaicSupplyLookup lookup = mosaicId -> {
+			maxInFlight.accumulateAndGet(numInFlight.incrementAndGet(), Math::max);
+			return CompletableFuture.supplyAsync(() -> {
+				sleep(5);
+				numInFlight.decrementAndGet();
+				return Supply.fromValue(100);
+			}, executor);
+		};
+		final MosaicSupplyReconciler reconciler = new MosaicSupplyReconciler(
+				Utils.generateRandomAccount(),
+				lookup,
+				transaction -> CompletableFuture.completedFuture(null),
+				TIME_PROVIDER,
+				3);
+		final Map<MosaicId, Supply> targets = new HashMap<>();
+		for (int i = 0; i < 30; ++i) {
+			targets.put(createMosaicId(i), Supply.fromValue(100));
+		}
+
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> entries = reconciler.reconcile(targets, new HashMap<>(), false).join();
+		executor.shutdown();
+
+		// Assert:
+		Assert.assertThat(entries.size(), IsEqual.equalTo(30));
+		Assert.assertThat(maxInFlight.get() <= 3, IsEqual.equalTo(true));
+	}
+
+	@Test
+	public void reconcileDoesNotBlockCallingThread() {
+		// Arrange: the lookups only complete when the test completes them
+		final List<CompletableFuture<Supply>> lookups = Collections.synchronizedList(new ArrayList<>());
+		final MosaicSupplyReconciler reconciler = new MosaicSupplyReconciler(
+				Utils.generateRandomAccount(),
+				mosaicId -> {
+					final CompletableFuture<Supply> future = new CompletableFuture<>();
+					lookups.add(future);
+					return future;
+				},
+				transaction -> CompletableFuture.completedFuture(null),
+				TIME_PROVIDER,
+				1);
+		final Map<MosaicId, Supply> targets = new HashMap<>();
+		for (int i = 0; i < 3; ++i) {
+			targets.put(createMosaicId(i), Supply.fromValue(100));
+		}
+
+		// Act:
+		final CompletableFuture<Map<MosaicId, SupplyCheckpointEntry>> future = reconciler.reconcile(targets, new HashMap<>(), false);
+		final int numLookupsBeforeCompletion = lookups.size();
+		for (int i = 0; i < 3; ++i) {
+			lookups.get(i).complete(Supply.fromValue(100));
+		}
+
+		// Assert:
+		Assert.assertThat(numLookupsBeforeCompletion, IsEqual.equalTo(1));
+		Assert.assertThat(future.isDone(), IsEqual.equalTo(true));
+		Assert.assertThat(future.join().size(), IsEqual.equalTo(3));
+	}
+
+	//endregion
+
+	//region files
+
+	@Test
+	public void canReadSupplies() throws IOException {
+		// Arrange:
+		final Reader reader = new StringReader("# targets\nfoo * bar1, 100\n\nfoo * bar2,0\n");
+
+		// Act:
+		final Map<MosaicId, Supply> supplies = MosaicSupplyReconciler.readSupplies(reader);
+
+		// Assert:
+		Assert.assertThat(supplies.size(), IsEqual.equalTo(2));
+		Assert.assertThat(supplies.get(createMosaicId(1)), IsEqual.equalTo(Supply.fromValue(100)));
+		Assert.assertThat(supplies.get(createMosaicId(2)), IsEqual.equalTo(Supply.fromValue(0)));
+	}
+
+	@Test(expected = IOException.class)
+	public void cannotReadMalformedSupplies() throws IOException {
+		// Act:
+		MosaicSupplyReconciler.readSupplies(new StringReader("foo bar1,100\n"));
+	}
+
+	@Test
+	public void checkpointCanBeRoundTripped() throws IOException {
+		// Arrange:
+		final File file = File.createTempFile("checkpoint", ".txt");
+		file.deleteOnExit();
+		final Map<MosaicId, SupplyCheckpointEntry> checkpoint = new LinkedHashMap<>();
+		checkpoint.put(createMosaicId(1), SupplyCheckpointEntry.verified(Supply.fromValue(100)));
+		checkpoint.put(createMosaicId(2), SupplyCheckpointEntry.pending(Supply.fromValue(200), Utils.generateRandomHash(), new TimeInstant(1234)));
+
+		// Act:
+		MosaicSupplyReconciler.writeCheckpoint(file, checkpoint);
+		final Map<MosaicId, SupplyCheckpointEntry> result = MosaicSupplyReconciler.readCheckpoint(file);
+
+		// Assert:
+		Assert.assertThat(result.size(), IsEqual.equalTo(2));
+		Assert.assertThat(result.get(createMosaicId(1)).isPending(), IsEqual.equalTo(false));
+		Assert.assertThat(result.get(createMosaicId(1)).getTarget(), IsEqual.equalTo(Supply.fromValue(100)));
+
+		final SupplyCheckpointEntry pending = result.get(createMosaicId(2));
+		Assert.assertThat(pending.getTarget(), IsEqual.equalTo(Supply.fromValue(200)));
+		Assert.assertThat(pending.getPendingTransactionHash(), IsEqual.equalTo(checkpoint.get(createMosaicId(2)).getPendingTransactionHash()));
+		Assert.assertThat(pending.getPendingDeadline(), IsEqual.equalTo(new TimeInstant(1234)));
+	}
+
+	@Test
+	public void missingCheckpointIsEmpty() throws IOException {
+		// Act:
+		final Map<MosaicId, SupplyCheckpointEntry> result = MosaicSupplyReconciler.readCheckpoint(new File("does-not-exist.txt"));
+
+		// Assert:
+		Assert.assertThat(result.isEmpty(), IsEqual.equalTo(true));
+	}
+
+	//endregion
+
+	private static MosaicId createMosaicId(final int id) {
+		return new MosaicId(new NamespaceId("foo"), "bar" + id);
+	}
+
+	private static SupplyCheckpointEntry createLivePendingEntry(final long target) {
+		return SupplyCheckpointEntry.pending(
+				Supply.fromValue(target),
+				Utils.generateRandomHash(),
+				TIME_PROVIDER.getCurrentTime().addHours(1));
+	}
+
+	private static Map<MosaicId, Supply> createTargets(final int id, final long supply) {
+		final Map<MosaicId, Supply> targets = new HashMap<>();
+		targets.put(createMosaicId(id), Supply.fromValue(supply));
+		return targets;
+	}
+
+	private static void sleep(final int millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class TestContext {
+		private final Map<MosaicId, Supply> currentSupplies = new HashMap<>();
+		private final List<Transaction> announced = Collections.synchronizedList(new ArrayList<>());
+		private final AtomicInteger numLookups = new AtomicInteger();
+		private final MosaicSupplyReconciler reconciler = new MosaicSupplyReconciler(
+				Utils.generateRandomAccount(),
+				this::getSupply,
+				this::announce,
+				TIME_PROVIDER,
+				4);
+
+		private CompletableFuture<Supply> getSupply(final MosaicId mosaicId) {
+			this.numLookups.incrementAndGet();
+			final CompletableFuture<Supply> future = new CompletableFuture<>();
+			final Supply supply = this.currentSupplies.get(mosaicId);
+			if (null == supply) {
+				future.completeExceptionally(new IllegalArgumentException("unknown mosaic"));
+			} else {
+				future.complete(supply);
+			}
+
+			return future;
+		}
+
+		private CompletableFuture<Void> announce(final Transaction transaction) {
+			this.announced.add(transaction);
+			return CompletableFuture.completedFuture(null);
+		}
+
+		private Map<MosaicId, SupplyCheckpointEntry> reconcile(
+				final Map<MosaicId, Supply> targets,
+				final Map<MosaicId, SupplyCheckpointEntry> checkpoint,
+				final boolean fullVerify) {
+			return this.reconciler.reconcile(targets, checkpoint, fullVerify).join();
+		}
+	}
+}
@@ -0,0 +1,329 @@
+package org.nem.samples.transactions;
+
+import org.hamcrest.core.*;
+import org.junit.*;
+import org.nem.core.model.*;
+import org.nem.core.model.primitive.Amount;
+import org.nem.core.test.Utils;
+import org.nem.core.time.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.*;
+
+public class MultisigPayoutCoordinatorTest {
+	private static final TimeProvider TIME_PROVIDER = new SystemTimeProvider();
+
+	//region announce
+
+	@Test
+	public void multisigTransactionIsAnnouncedBeforeAnyCosignature() {
+		// Arrange:
+		final TestContext context = new TestContext(3);
+
+		// Act:
+		final MultisigPayoutResult result = context.pay();
+
+		// Assert:
+		Assert.assertThat(result.isSuccess(), IsEqual.equalTo(true));
+		Assert.assertThat(result.isMultisigTransactionAnnounced(), IsEqual.equalTo(true));
+		Assert.assertThat(context.accepted.size(), IsEqual.equalTo(4));
+		Assert.assertThat(context.accepted.get(0) instanceof MultisigTransaction, IsEqual.equalTo(true));
+		Assert.assertThat(context.getAcceptedCosigners(), IsEqual.equalTo(new HashSet<>(context.cosignerAccounts)));
+	}
+
+	@Test
+	public void cosignaturesSignTheTransferHash() {
+		// Arrange:
+		final TestContext context = new TestContext(2);
+		final MultisigPayout payout = context.prepare();
+
+		// Act:
+		context.coordinator.announce(payout).join();
+
+		// Assert:
+		for (int i = 0; i < 2; ++i) {
+			Assert.assertThat(payout.getCosignature(i).getOtherTransactionHash(), IsEqual.equalTo(payout.getTransferHash()));
+		}
+	}
+
+	@Test
+	public void multisigTransactionFailureAnnouncesNoCosignatures() {
+		// Arrange:
+		final TestContext context = new TestContext(3);
+		context.behavior = t -> t instanceof MultisigTransaction ? failed(new IllegalStateException("timeout")) : accept(t, context);
+
+		// Act:
+		final MultisigPayoutResult result = context.pay();
+
+		// Assert:
+		Assert.assertThat(result.isSuccess(), IsEqual.equalTo(false));
+		Assert.assertThat(result.isMultisigTransactionAnnounced(), IsEqual.equalTo(false));
+		Assert.assertThat(result.getError().getMessage(), IsEqual.equalTo("timeout"));
+		Assert.assertThat(context.attempts.size(), IsEqual.equalTo(1));
+		Assert.assertThat(context.accepted.isEmpty(), IsEqual.equalTo(true));
+	}
+
+	@Test
+	public void cosignerFailureFailsPayoutButAnnouncesOtherCosignatures() {
+		// Arrange:
+		final TestContext context = new TestContext(2, Collections.singletonList(failingCosigner()));
+
+		// Act:
+		final MultisigPayoutResult result = context.pay();
+
+		// Assert:
+		Assert.assertThat(result.isSuccess(), IsEqual.equalTo(false));
+		Assert.assertThat(result.isMultisigTransactionAnnounced(), IsEqual.equalTo(true));
+		Assert.assertThat(context.accepted.size(), IsEqual.equalTo(3));
+	}
+
+	@Test
+	public void rejectionThatIsNotDuplicateFailsPayout() {
+		// Arrange:
+		final TestContext context = new TestContext(1);
+		context.behavior = t -> failed(new TransactionRejectedException("FAILURE_INSUFFICIENT_BALANCE"));
+
+		// Act:
+		final MultisigPayoutResult result = context.pay();
+
+		// Assert:
+		Assert.assertThat(result.isSuccess(), IsEqual.equalTo(false));
+		Assert.assertThat(result.getError() instanceof TransactionRejectedException, IsEqual.equalTo(true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void cannotAnnouncePayoutPreparedForDifferentNumberOfCosigners() {
+		// Arrange:
+		final MultisigPayout payout = new TestContext(2).prepare();
+		final TestContext context = new TestContext(3);
+
+		// Act:
+		context.coordinator.announce(payout);
+	}
+
+	//endregion
+
+	//region retry
+
+	@Test
+	public void retryAfterPartialSuccessAnnouncesOnlyMissingCosignatures() {
+		// Arrange: the last cosigner fails once
+		final TestContext context = new TestContext(2, Collections.singletonList(failingOnceCosigner()));
+		final MultisigPayout payout = context.prepare();
+		context.coordinator.announce(payout).join();
+		final List<Transaction> acceptedBeforeRetry = new ArrayList<>(context.accepted);
+		context.attempts.clear();
+
+		// Act:
+		final MultisigPayoutResult result = context.coordinator.announce(payout).join();
+
+		// Assert:
+		Assert.assertThat(acceptedBeforeRetry.size(), IsEqual.equalTo(3));
+		Assert.assertThat(result.isSuccess(), IsEqual.equalTo(true));
+		Assert.assertThat(context.attempts.size(), IsEqual.equalTo(1));
+		Assert.assertThat(context.attempts.get(0), IsEqual.equalTo(payout.getCosignature(2)));
+		Assert.assertThat(payout.getNumCosignaturesAnnounced(), IsEqual.equalTo(3));
+	}
+
+	@Test
+	public void retryReannouncesTheSameSignedCosignature() {
+		// Arrange: the first cosignature announce times out
+		final TestContext context = new TestContext(1);
+		final AtomicInteger numCosignatureAttempts = new AtomicInteger();
+		context.behavior = t -> t instanceof MultisigSignatureTransaction && 1 == numCosignatureAttempts.incrementAndGet()
+				? failed(new IllegalStateException("timeout"))
+				: accept(t, context);
+		final MultisigPayout payout = context.prepare();
+		context.coordinator.announce(payout).join();
+		final MultisigSignatureTransaction cosignature = payout.getCosignature(0);
+
+		// Act:
+		final MultisigPayoutResult result = context.coordinator.announce(payout).join();
+
+		// Assert:
+		Assert.assertThat(result.isSuccess(), IsEqual.equalTo(true));
+		Assert.assertThat(payout.getCosignature(0), IsSame.sameInstance(cosignature));
+		Assert.assertThat(context.accepted.get(context.accepted.size() - 1), IsSame.sameInstance((Transaction)cosignature));
+	}
+
+	@Test
+	public void retryTreatsDuplicateMultisigTransactionAsAccepted() {
+		// Arrange: the node accepts the multisig transaction but the response times out,
+		// so the retry is rejected as a duplicate
+		final TestContext context = new TestContext(2);
+		final AtomicInteger numMultisigAttempts = new AtomicInteger();
+		context.behavior = t -> {
+			if (!(t instanceof MultisigTransaction)) {
+				return accept(t, context);
+			}
+
+			return 1 == numMultisigAttempts.incrementAndGet()
+					? failed(new IllegalStateException("timeout"))
+					: failed(new TransactionRejectedException("FAILURE_HASH_EXISTS"));
+		};
+		final MultisigPayout payout = context.prepare();
+		final MultisigPayoutResult firstResult = context.coordinator.announce(payout).join();
+
+		// Act:
+		final MultisigPayoutResult result = context.coordinator.announce(payout).join();
+
+		// Assert:
+		Assert.assertThat(firstResult.isSuccess(), IsEqual.equalTo(false));
+		Assert.assertThat(result.isSuccess(), IsEqual.equalTo(true));
+		Assert.assertThat(result.isMultisigTransactionAnnounced(), IsEqual.equalTo(true));
+		Assert.assertThat(context.getAcceptedCosigners(), IsEqual.equalTo(new HashSet<>(context.cosignerAccounts)));
+	}
+
+	@Test
+	public void retryOfCompletePayoutAnnouncesNothing() {
+		// Arrange:
+		final TestContext context = new TestContext(2);
+		final MultisigPayout payout = context.prepare();
+		context.coordinator.announce(payout).join();
+		context.attempts.clear();
+
+		// Act:
+		final MultisigPayoutResult result = context.coordinator.announce(payout).join();
+
+		// Assert:
+		Assert.assertThat(result.isSuccess(), IsEqual.equalTo(true));
+		Assert.assertThat(context.attempts.isEmpty(), IsEqual.equalTo(true));
+	}
+
+	//endregion
+
+	//region payAll
+
+	@Test
+	public void payAllReturnsOneResultPerPayoutWhenSomeFail() {
+		// Arrange: the multisig transactions of every third payout are rejected
+		final TestContext context = new TestContext(2);
+		final List<MultisigPayout> payouts = IntStream.range(0, 10).mapToObj(i -> context.prepare()).collect(Collectors.toList());
+		final Set<Transaction> rejected = IntStream.range(0, 10).filter(i -> 0 == i % 3)
+				.mapToObj(i -> payouts.get(i).getMultisigTransaction())
+				.collect(Collectors.toSet());
+		context.behavior = t -> rejected.contains(t) ? failed(new TransactionRejectedException("FAILURE_UNKNOWN")) : accept(t, context);
+
+		// Act:
+		final List<MultisigPayoutResult> results = context.coordinator.payAll(payouts).join();
+
+		// Assert:
+		Assert.assertThat(results.size(), IsEqual.equalTo(10));
+		for (int i = 0; i < 10; ++i) {
+			Assert.assertThat(results.get(i).getTransferHash(), IsEqual.equalTo(payouts.get(i).getTransferHash()));
+			Assert.assertThat(results.get(i).isSuccess(), IsEqual.equalTo(0 != i % 3));
+		}
+
+		Assert.assertThat(context.accepted.size(), IsEqual.equalTo(6 * 3));
+	}
+
+	@Test
+	public void payAllLimitsNumberOfPayoutsInFlight() {
+		// Arrange:
+		final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		final AtomicInteger numInFlight = new AtomicInteger();
+		final AtomicInteger maxInFlight = new AtomicInteger();
+		final TestContext context = new TestContext(0, Collections.emptyList(), 3);
+		context.behavior = t -> {
+			maxInFlight.accumulateAndGet(numInFlight.incrementAndGet(), Math::max);
+			final CompletableFuture<Void> future = new CompletableFuture<>();
+			scheduler.schedule(() -> {
+				numInFlight.decrementAndGet();
+				future.complete(null);
+			}, 2, TimeUnit.MILLISECONDS);
+			return future;
+		};
+		final List<MultisigPayout> payouts = IntStream.range(0, 30).mapToObj(i -> context.prepare()).collect(Collectors.toList());
+
+		// Act:
+		final List<MultisigPayoutResult> results = context.coordinator.payAll(payouts).join();
+		scheduler.shutdown();
+
+		// Assert:
+		Assert.assertThat(results.stream().allMatch(MultisigPayoutResult::isSuccess), IsEqual.equalTo(true));
+		Assert.assertThat(context.attempts.size(), IsEqual.equalTo(30));
+		Assert.assertThat(maxInFlight.get() <= 3, IsEqual.equalTo(true));
+	}
+
+	//endregion
+
+	private static CompletableFuture<Void> accept(final Transaction transaction, final TestContext context) {
+		context.accepted.add(transaction);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	private static <T> CompletableFuture<T> failed(final Throwable e) {
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(e);
+		return future;
+	}
+
+	private static CosignerService failingCosigner() {
+		return (multisig, hash, timeInstant) -> failed(new IllegalStateException("cosigner is offline"));
+	}
+
+	private static CosignerService failingOnceCosigner() {
+		final CosignerService cosigner = new LocalCosignerService(Utils.generateRandomAccount());
+		final AtomicInteger numCalls = new AtomicInteger();
+		return (multisig, hash, timeInstant) -> 1 == numCalls.incrementAndGet()
+				? failed(new IllegalStateException("cosigner is offline"))
+				: cosigner.cosign(multisig, hash, timeInstant);
+	}
+
+	private static class TestContext {
+		private final Account multisig = Utils.generateRandomAccount();
+		private final List<Account> cosignerAccounts;
+		private final List<Transaction> attempts = Collections.synchronizedList(new ArrayList<>());
+		private final List<Transaction> accepted = Collections.synchronizedList(new ArrayList<>());
+		private Function<Transaction, CompletableFuture<Void>> behavior = t -> accept(t, this);
+		private final MultisigPayoutCoordinator coordinator;
+
+		private TestContext(final int numLocalCosigners) {
+			this(numLocalCosigners, Collections.emptyList());
+		}
+
+		private TestContext(final int numLocalCosigners, final List<CosignerService> otherCosigners) {
+			this(numLocalCosigners, otherCosigners, 4);
+		}
+
+		private TestContext(final int numLocalCosigners, final List<CosignerService> otherCosigners, final int maxConcurrentPayouts) {
+			this.cosignerAccounts = IntStream.range(0, numLocalCosigners)
+					.mapToObj(i -> Utils.generateRandomAccount())
+					.collect(Collectors.toList());
+			final List<CosignerService> cosigners = this.cosignerAccounts.stream()
+					.map(LocalCosignerService::new)
+					.collect(Collectors.toList());
+			cosigners.addAll(otherCosigners);
+			this.coordinator = new MultisigPayoutCoordinator(
+					this.multisig,
+					Utils.generateRandomAccount(),
+					cosigners,
+					this::announce,
+					TIME_PROVIDER,
+					maxConcurrentPayouts);
+		}
+
+		private CompletableFuture<Void> announce(final Transaction transaction) {
+			this.attempts.add(transaction);
+			return this.behavior.apply(transaction);
+		}
+
+		private MultisigPayout prepare() {
+			return this.coordinator.prepare(Utils.generateRandomAccount(), Amount.fromNem(10));
+		}
+
+		private MultisigPayoutResult pay() {
+			return this.coordinator.announce(this.prepare()).join();
+		}
+
+		private Set<Account> getAcceptedCosigners() {
+			return this.accepted.stream()
+					.filter(t -> t instanceof MultisigSignatureTransaction)
+					.map(Transaction::getSigner)
+					.collect(Collectors.toSet());
+		}
+	}
+}
@@ -0,0 +1,299 @@
+package org.nem.samples.transactions;
+
+import org.hamcrest.core.*;
+import org.junit.*;
+import org.nem.core.crypto.Hash;
+import org.nem.core.model.Address;
+import org.nem.core.test.Utils;
+import org.nem.core.time.TimeInstant;
+
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class PendingTransactionStoreTest {
+	private static final int MAX_PAYLOAD_SIZE = 1024;
+
+	//region add / get
+
+	@Test
+	public void newStoreIsEmpty() {
+		// Act:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+
+		// Assert:
+		Assert.assertThat(store.size(), IsEqual.equalTo(0));
+		Assert.assertThat(store.getEarliestDeadline(), IsNull.nullValue());
+	}
+
+	@Test
+	public void canAddTransaction() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		final Hash hash = Utils.generateRandomHash();
+		final Address sender = Utils.generateRandomAddress();
+		final byte[] payload = Utils.generateRandomBytes(200);
+
+		// Act:
+		final boolean result = store.add(hash, sender, new TimeInstant(123), payload);
+
+		// Assert:
+		Assert.assertThat(result, IsEqual.equalTo(true));
+		Assert.assertThat(store.size(), IsEqual.equalTo(1));
+		Assert.assertThat(store.contains(hash), IsEqual.equalTo(true));
+
+		final PendingTransaction transaction = store.get(hash);
+		Assert.assertThat(transaction.getHash(), IsEqual.equalTo(hash));
+		Assert.assertThat(transaction.getSender(), IsEqual.equalTo(sender));
+		Assert.assertThat(transaction.getDeadline(), IsEqual.equalTo(new TimeInstant(123)));
+		Assert.assertThat(transaction.getPayload(), IsEqual.equalTo(payload));
+	}
+
+	@Test
+	public void canAddTransactionWithEmptyPayload() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		final Hash hash = Utils.generateRandomHash();
+
+		// Act:
+		store.add(hash, Utils.generateRandomAddress(), new TimeInstant(123), new byte[0]);
+
+		// Assert:
+		Assert.assertThat(store.get(hash).getPayload(), IsEqual.equalTo(new byte[0]));
+	}
+
+	@Test
+	public void cannotAddSameTransactionTwice() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		final Hash hash = Utils.generateRandomHash();
+		store.add(hash, Utils.generateRandomAddress(), new TimeInstant(123), new byte[10]);
+
+		// Act:
+		final boolean result = store.add(hash, Utils.generateRandomAddress(), new TimeInstant(456), new byte[20]);
+
+		// Assert:
+		Assert.assertThat(result, IsEqual.equalTo(false));
+		Assert.assertThat(store.size(), IsEqual.equalTo(1));
+		Assert.assertThat(store.get(hash).getDeadline(), IsEqual.equalTo(new TimeInstant(123)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void cannotAddTransactionWithTooLargePayload() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+
+		// Act:
+		store.add(Utils.generateRandomHash(), Utils.generateRandomAddress(), new TimeInstant(123), new byte[MAX_PAYLOAD_SIZE + 1]);
+	}
+
+	@Test
+	public void getReturnsNullForUnknownTransaction() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		store.add(Utils.generateRandomHash(), Utils.generateRandomAddress(), new TimeInstant(123), new byte[10]);
+
+		// Act + Assert:
+		Assert.assertThat(store.get(Utils.generateRandomHash()), IsNull.nullValue());
+		Assert.assertThat(store.contains(Utils.generateRandomHash()), IsEqual.equalTo(false));
+	}
+
+	//endregion
+
+	//region remove
+
+	@Test
+	public void canRemoveTransaction() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		final List<Hash> hashes = addTransactions(store, 5);
+
+		// Act:
+		final boolean result = store.remove(hashes.get(2));
+
+		// Assert:
+		Assert.assertThat(result, IsEqual.equalTo(true));
+		Assert.assertThat(store.size(), IsEqual.equalTo(4));
+		Assert.assertThat(store.contains(hashes.get(2)), IsEqual.equalTo(false));
+		for (final Hash hash : Arrays.asList(hashes.get(0), hashes.get(1), hashes.get(3), hashes.get(4))) {
+			Assert.assertThat(store.contains(hash), IsEqual.equalTo(true));
+		}
+	}
+
+	@Test
+	public void removeReturnsFalseForUnknownTransaction() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		addTransactions(store, 5);
+
+		// Act:
+		final boolean result = store.remove(Utils.generateRandomHash());
+
+		// Assert:
+		Assert.assertThat(result, IsEqual.equalTo(false));
+		Assert.assertThat(store.size(), IsEqual.equalTo(5));
+	}
+
+	@Test
+	public void removeKeepsCollidingTransactionsReachable() {
+		// Arrange: all hashes share the same home slot
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		final List<Hash> hashes = new ArrayList<>();
+		for (int i = 0; i < 8; ++i) {
+			final byte[] rawHash = Utils.generateRandomBytes(32);
+			rawHash[0] = rawHash[1] = rawHash[2] = rawHash[3] = 0;
+			hashes.add(new Hash(rawHash));
+			store.add(hashes.get(i), Utils.generateRandomAddress(), new TimeInstant(i), new byte[i]);
+		}
+
+		// Act:
+		store.remove(hashes.get(0));
+		store.remove(hashes.get(4));
+
+		// Assert:
+		Assert.assertThat(store.size(), IsEqual.equalTo(6));
+		for (int i = 0; i < 8; ++i) {
+			Assert.assertThat(store.contains(hashes.get(i)), IsEqual.equalTo(0 != i && 4 != i));
+		}
+
+		Assert.assertThat(store.get(hashes.get(7)).getPayload(), IsEqual.equalTo(new byte[7]));
+	}
+
+	//endregion
+
+	//region expiry
+
+	@Test
+	public void earliestDeadlineIsTracked() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		final Hash hash = Utils.generateRandomHash();
+		store.add(Utils.generateRandomHash(), Utils.generateRandomAddress(), new TimeInstant(30), new byte[10]);
+		store.add(hash, Utils.generateRandomAddress(), new TimeInstant(10), new byte[10]);
+		store.add(Utils.generateRandomHash(), Utils.generateRandomAddress(), new TimeInstant(20), new byte[10]);
+
+		// Act:
+		final TimeInstant before = store.getEarliestDeadline();
+		store.remove(hash);
+		final TimeInstant after = store.getEarliestDeadline();
+
+		// Assert:
+		Assert.assertThat(before, IsEqual.equalTo(new TimeInstant(10)));
+		Assert.assertThat(after, IsEqual.equalTo(new TimeInstant(20)));
+	}
+
+	@Test
+	public void removeExpiredRemovesTransactionsWithEarlierDeadlineInDeadlineOrder() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		for (final int deadline : Arrays.asList(50, 10, 40, 20, 30)) {
+			store.add(Utils.generateRandomHash(), Utils.generateRandomAddress(), new TimeInstant(deadline), new byte[deadline]);
+		}
+
+		// Act:
+		final List<PendingTransaction> expired = store.removeExpired(new TimeInstant(40));
+
+		// Assert:
+		Assert.assertThat(
+				expired.stream().map(t -> t.getDeadline().getRawTime()).collect(Collectors.toList()),
+				IsEqual.equalTo(Arrays.asList(10, 20, 30)));
+		Assert.assertThat(expired.get(1).getPayload(), IsEqual.equalTo(new byte[20]));
+		Assert.assertThat(store.size(), IsEqual.equalTo(2));
+		Assert.assertThat(store.getEarliestDeadline(), IsEqual.equalTo(new TimeInstant(40)));
+	}
+
+	@Test
+	public void removeExpiredReturnsEmptyListIfNothingExpired() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(10, MAX_PAYLOAD_SIZE);
+		addTransactions(store, 5);
+
+		// Act:
+		final List<PendingTransaction> expired = store.removeExpired(new TimeInstant(0));
+
+		// Assert:
+		Assert.assertThat(expired.isEmpty(), IsEqual.equalTo(true));
+		Assert.assertThat(store.size(), IsEqual.equalTo(5));
+	}
+
+	//endregion
+
+	//region growth
+
+	@Test
+	public void storeGrowsBeyondExpectedSize() {
+		// Arrange:
+		final PendingTransactionStore store = new PendingTransactionStore(4, MAX_PAYLOAD_SIZE);
+
+		// Act:
+		final List<Hash> hashes = addTransactions(store, 1000);
+
+		// Assert:
+		Assert.assertThat(store.size(), IsEqual.equalTo(1000));
+		for (final Hash hash : hashes) {
+			Assert.assertThat(store.contains(hash), IsEqual.equalTo(true));
+		}
+
+		Assert.assertThat(store.removeExpired(new TimeInstant(Integer.MAX_VALUE)).size(), IsEqual.equalTo(1000));
+		Assert.assertThat(store.size(), IsEqual.equalTo(0));
+	}
+
+	//endregion
+
+	@Test
+	public void storeBehavesLikeReferenceMapUnderRandomOperations() {
+		// Arrange:
+		final SecureRandom random = new SecureRandom();
+		final PendingTransactionStore store = new PendingTransactionStore(16, 64);
+		final Map<Hash, PendingTransaction> reference = new HashMap<>();
+		final List<Hash> hashes = new ArrayList<>();
+
+		// Act + Assert:
+		for (int i = 0; i < 50000; ++i) {
+			final int operation = random.nextInt(10);
+			if (operation < 6) {
+				final PendingTransaction transaction = new PendingTransaction(
+						Utils.generateRandomHash(),
+						Utils.generateRandomAddress(),
+						new TimeInstant(random.nextInt(100000)),
+						Utils.generateRandomBytes(random.nextInt(65)));
+				store.add(transaction.getHash(), transaction.getSender(), transaction.getDeadline(), transaction.getPayload());
+				reference.put(transaction.getHash(), transaction);
+				hashes.add(transaction.getHash());
+			} else if (operation < 9 && !hashes.isEmpty()) {
+				final Hash hash = hashes.get(random.nextInt(hashes.size()));
+				Assert.assertThat(store.remove(hash), IsEqual.equalTo(null != reference.remove(hash)));
+			} else {
+				final TimeInstant now = new TimeInstant(random.nextInt(3000));
+				for (final PendingTransaction transaction : store.removeExpired(now)) {
+					Assert.assertThat(transaction.getPayload(), IsEqual.equalTo(reference.remove(transaction.getHash()).getPayload()));
+				}
+
+				Assert.assertThat(reference.values().stream().anyMatch(t -> t.getDeadline().compareTo(now) < 0), IsEqual.equalTo(false));
+			}
+
+			Assert.assertThat(store.size(), IsEqual.equalTo(reference.size()));
+		}
+
+		for (final Hash hash : hashes) {
+			final PendingTransaction expected = reference.get(hash);
+			final PendingTransaction actual = store.get(hash);
+			Assert.assertThat(null == actual, IsEqual.equalTo(null == expected));
+			if (null != expected) {
+				Assert.assertThat(actual.getDeadline(), IsEqual.equalTo(expected.getDeadline()));
+				Assert.assertThat(actual.getPayload(), IsEqual.equalTo(expected.getPayload()));
+			}
+		}
+	}
+
+	private static List<Hash> addTransactions(final PendingTransactionStore store, final int count) {
+		final List<Hash> hashes = new ArrayList<>();
+		for (int i = 0; i < count; ++i) {
+			final Hash hash = Utils.generateRandomHash();
+			store.add(hash, Utils.generateRandomAddress(), new TimeInstant(100 + i), Utils.generateRandomBytes(i % 100));
+			hashes.add(hash);
+		}
+
+		return hashes;
+	}
+}
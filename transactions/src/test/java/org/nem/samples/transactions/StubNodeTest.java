@@ -0,0 +1,157 @@
+package org.nem.samples.transactions;
+
+import org.hamcrest.core.*;
+import org.junit.*;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class StubNodeTest {
+
+	@Test
+	public void identicalRequestsReceiveRecordedResponsesInOrder() throws IOException {
+		// Arrange:
+		final List<TraceRecord> records = Arrays.asList(
+				createGetRecord("/chain/height", "", 200, "{\"height\":1}"),
+				createGetRecord("/chain/height", "", 200, "{\"height\":2}"));
+		try (final StubNode stubNode = new StubNode(records, 0, false)) {
+			// Act:
+			final Response response1 = send(stubNode, "GET", "/chain/height", null);
+			final Response response2 = send(stubNode, "GET", "/chain/height", null);
+			final Response response3 = send(stubNode, "GET", "/chain/height", null);
+
+			// Assert:
+			Assert.assertThat(response1.body, IsEqual.equalTo("{\"height\":1}"));
+			Assert.assertThat(response2.body, IsEqual.equalTo("{\"height\":2}"));
+			Assert.assertThat(response3.status, IsEqual.equalTo(404));
+			Assert.assertThat(stubNode.getNumUnmatched(), IsEqual.equalTo(1));
+		}
+	}
+
+	@Test
+	public void requestsAreMatchedByQueryAndPayload() throws IOException {
+		// Arrange:
+		final List<TraceRecord> records = Arrays.asList(
+				createGetRecord("/account/get", "address=A", 200, "A"),
+				createGetRecord("/account/get", "address=B", 200, "B"),
+				new TraceRecord(0, 0, "POST", "/transaction/announce", "", bytes("1"), "application/json", 200, "", bytes("one"), ""),
+				new TraceRecord(0, 0, "POST", "/transaction/announce", "", bytes("2"), "application/json", 202, "", bytes("two"), ""));
+		try (final StubNode stubNode = new StubNode(records, 0, false)) {
+			// Act:
+			final Response responseB = send(stubNode, "GET", "/account/get?address=B", null);
+			final Response responseA = send(stubNode, "GET", "/account/get?address=A", null);
+			final Response response2 = send(stubNode, "POST", "/transaction/announce", bytes("2"));
+			final Response response1 = send(stubNode, "POST", "/transaction/announce", bytes("1"));
+
+			// Assert:
+			Assert.assertThat(responseB.body, IsEqual.equalTo("B"));
+			Assert.assertThat(responseA.body, IsEqual.equalTo("A"));
+			Assert.assertThat(response2.status, IsEqual.equalTo(202));
+			Assert.assertThat(response2.body, IsEqual.equalTo("two"));
+			Assert.assertThat(response1.status, IsEqual.equalTo(200));
+			Assert.assertThat(response1.body, IsEqual.equalTo("one"));
+			Assert.assertThat(stubNode.getNumUnmatched(), IsEqual.equalTo(0));
+		}
+	}
+
+	@Test
+	public void unknownRequestIsAnsweredWithNotFound() throws IOException {
+		// Arrange:
+		final List<TraceRecord> records = Collections.singletonList(createGetRecord("/chain/height", "", 200, "{}"));
+		try (final StubNode stubNode = new StubNode(records, 0, false)) {
+			// Act:
+			final Response response1 = send(stubNode, "GET", "/chain/last-block", null);
+			final Response response2 = send(stubNode, "POST", "/chain/height", bytes("x"));
+
+			// Assert:
+			Assert.assertThat(response1.status, IsEqual.equalTo(404));
+			Assert.assertThat(response2.status, IsEqual.equalTo(404));
+			Assert.assertThat(stubNode.getNumUnmatched(), IsEqual.equalTo(2));
+		}
+	}
+
+	@Test
+	public void responseHasRecordedContentType() throws IOException {
+		// Arrange:
+		final List<TraceRecord> records = Collections.singletonList(createGetRecord("/chain/height", "", 200, "{}"));
+		try (final StubNode stubNode = new StubNode(records, 0, false)) {
+			// Act:
+			final Response response = send(stubNode, "GET", "/chain/height", null);
+
+			// Assert:
+			Assert.assertThat(response.contentType, IsEqual.equalTo("application/json"));
+		}
+	}
+
+	@Test
+	public void failureRecordClosesConnectionWithoutResponse() throws IOException {
+		// Arrange:
+		final List<TraceRecord> records = Collections.singletonList(
+				new TraceRecord(0, 0, "GET", "/chain/height", "", new byte[0], "", 0, "", new byte[0], "java.net.SocketTimeoutException"));
+		try (final StubNode stubNode = new StubNode(records, 0, false)) {
+			// Act: a raw socket is used because url connections retry requests on a closed connection
+			final byte[] response;
+			try (final Socket socket = new Socket("127.0.0.1", stubNode.getPort())) {
+				socket.setSoTimeout(5000);
+				socket.getOutputStream().write(bytes("GET /chain/height HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n"));
+				socket.getOutputStream().flush();
+				response = readAll(socket.getInputStream());
+			}
+
+			// Assert:
+			Assert.assertThat(response.length, IsEqual.equalTo(0));
+			Assert.assertThat(stubNode.getNumUnmatched(), IsEqual.equalTo(0));
+		}
+	}
+
+	private static TraceRecord createGetRecord(final String path, final String query, final int status, final String body) {
+		return new TraceRecord(0, 0, "GET", path, query, new byte[0], "", status, "application/json", bytes(body), "");
+	}
+
+	private static byte[] bytes(final String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static Response send(final StubNode stubNode, final String method, final String pathAndQuery, final byte[] payload) throws IOException {
+		final URL url = new URL(String.format("http://127.0.0.1:%d%s", stubNode.getPort(), pathAndQuery));
+		final HttpURLConnection connection = (HttpURLConnection)url.openConnection();
+		try {
+			connection.setRequestMethod(method);
+			if (null != payload) {
+				connection.setDoOutput(true);
+				connection.setRequestProperty("Content-Type", "application/json");
+				try (final OutputStream stream = connection.getOutputStream()) {
+					stream.write(payload);
+				}
+			}
+
+			final Response response = new Response();
+			response.status = connection.getResponseCode();
+			response.contentType = connection.getContentType();
+			final InputStream stream = response.status < 400 ? connection.getInputStream() : connection.getErrorStream();
+			response.body = null == stream ? "" : new String(readAll(stream), StandardCharsets.UTF_8);
+			return response;
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	private static byte[] readAll(final InputStream stream) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[1024];
+		int numRead;
+		while (-1 != (numRead = stream.read(buffer))) {
+			bytes.write(buffer, 0, numRead);
+		}
+
+		return bytes.toByteArray();
+	}
+
+	private static class Response {
+		private int status;
+		private String contentType;
+		private String body;
+	}
+}
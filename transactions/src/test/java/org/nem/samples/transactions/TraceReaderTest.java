@@ -0,0 +1,202 @@
+package org.nem.samples.transactions;
+
+import org.hamcrest.core.*;
+import org.junit.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+public class TraceReaderTest {
+
+	//region round trip
+
+	@Test
+	public void canRoundTripRecords() throws Exception {
+		// Arrange:
+		final File file = createTempFile();
+		final List<TraceRecord> records = Arrays.asList(
+				new TraceRecord(10, 20, "GET", "/account/get", "address=TA", new byte[0], "", 200, "application/json", bytes("{}"), ""),
+				new TraceRecord(30, 40, "POST", "/transaction/announce", "", bytes("{\"data\":1}"), "application/json", 200, "", new byte[0], ""),
+				new TraceRecord(50, 60, "POST", "/push", "", new byte[] { 0, 1, 2, -1 }, "application/binary", 500, "text/plain", bytes("x"), ""),
+				new TraceRecord(70, 80, "GET", "/heartbeat", "", new byte[0], "", 0, "", new byte[0], "java.net.SocketTimeoutException"));
+
+		// Act:
+		try (final TraceWriter writer = new TraceWriter(file)) {
+			records.forEach(writer::write);
+		}
+
+		final List<TraceRecord> result = TraceReader.readAll(file);
+
+		// Assert:
+		assertEqual(result, records);
+		Assert.assertThat(result.get(3).isFailure(), IsEqual.equalTo(true));
+		Assert.assertThat(result.get(0).isFailure(), IsEqual.equalTo(false));
+	}
+
+	@Test
+	public void recordsWrittenAfterCloseAreDropped() throws Exception {
+		// Arrange:
+		final File file = createTempFile();
+		final TraceWriter writer = new TraceWriter(file);
+		writer.write(createRecord(0));
+		writer.close();
+
+		// Act:
+		writer.write(createRecord(1));
+		final List<TraceRecord> result = TraceReader.readAll(file);
+
+		// Assert:
+		assertEqual(result, Collections.singletonList(createRecord(0)));
+	}
+
+	@Test
+	public void canReadVersionTwoTrace() throws Exception {
+		// Arrange: version 2 records have no request content type
+		final File file = createTempFile();
+		try (final DataOutputStream stream = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(file)))) {
+			stream.writeInt(TraceWriter.MAGIC);
+			stream.writeShort(2);
+			stream.writeLong(10);
+			stream.writeLong(20);
+			stream.writeUTF("POST");
+			stream.writeUTF("/transaction/announce");
+			stream.writeUTF("");
+			stream.writeInt(2);
+			stream.write(new byte[] { 7, 8 });
+			stream.writeShort(0);
+			stream.writeUTF("");
+			stream.writeInt(0);
+			stream.writeUTF("java.net.ConnectException");
+		}
+
+		// Act:
+		final List<TraceRecord> result = TraceReader.readAll(file);
+
+		// Assert:
+		assertEqual(result, Collections.singletonList(new TraceRecord(
+				10, 20, "POST", "/transaction/announce", "", new byte[] { 7, 8 }, "", 0, "", new byte[0], "java.net.ConnectException")));
+	}
+
+	@Test(expected = IOException.class)
+	public void cannotReadUnsupportedVersion() throws Exception {
+		// Arrange:
+		final File file = createTempFile();
+		try (final DataOutputStream stream = new DataOutputStream(new GZIPOutputStream(new FileOutputStream(file)))) {
+			stream.writeInt(TraceWriter.MAGIC);
+			stream.writeShort(TraceWriter.VERSION + 1);
+		}
+
+		// Act:
+		TraceReader.readAll(file);
+	}
+
+	//endregion
+
+	//region truncation
+
+	@Test
+	public void canReadUnclosedTrace() throws Exception {
+		// Arrange:
+		final File file = createTempFile();
+		final TraceWriter writer = new TraceWriter(file);
+		final List<TraceRecord> records = new ArrayList<>();
+		for (int i = 0; i < 100; ++i) {
+			records.add(createRecord(i));
+			writer.write(records.get(i));
+		}
+
+		// Act:
+		writer.flush();
+		final List<TraceRecord> result = TraceReader.readAll(file);
+
+		// Assert:
+		assertEqual(result, records);
+		writer.close();
+	}
+
+	@Test
+	public void truncatedTraceReturnsAllCompleteRecords() throws Exception {
+		// Arrange: remember the length of the unclosed file after every flushed record
+		final File file = createTempFile();
+		final TraceWriter writer = new TraceWriter(file);
+		final List<TraceRecord> records = new ArrayList<>();
+		final List<Long> lengths = new ArrayList<>();
+		lengths.add(file.length());
+		for (int i = 0; i < 20; ++i) {
+			records.add(createRecord(i));
+			writer.write(records.get(i));
+			writer.flush();
+			lengths.add(file.length());
+		}
+
+		final byte[] bytes = Files.readAllBytes(file.toPath());
+		writer.close();
+
+		for (int i = 0; i < records.size(); ++i) {
+			// Act: cut at the end of a record and in the middle of the next record
+			final int end = lengths.get(i).intValue();
+			final int middle = end + (lengths.get(i + 1).intValue() - end) / 2;
+			final List<TraceRecord> resultAtEnd = TraceReader.readAll(createTruncatedCopy(bytes, end));
+			final List<TraceRecord> resultInMiddle = TraceReader.readAll(createTruncatedCopy(bytes, middle));
+
+			// Assert:
+			assertEqual(resultAtEnd, records.subList(0, i));
+			assertEqual(resultInMiddle, records.subList(0, i));
+		}
+	}
+
+	//endregion
+
+	private static TraceRecord createRecord(final int index) {
+		return new TraceRecord(
+				index * 1000,
+				index * 10,
+				"POST",
+				"/transaction/announce",
+				"",
+				bytes(String.format("{\"index\":%d}", index)),
+				"application/json",
+				200,
+				"application/json",
+				bytes(String.format("{\"code\":1,\"message\":\"SUCCESS %d\"}", index)),
+				"");
+	}
+
+	private static byte[] bytes(final String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static File createTempFile() throws IOException {
+		final File file = File.createTempFile("trace", ".bin");
+		file.deleteOnExit();
+		return file;
+	}
+
+	private static File createTruncatedCopy(final byte[] bytes, final int length) throws IOException {
+		final File file = createTempFile();
+		Files.write(file.toPath(), Arrays.copyOf(bytes, length));
+		return file;
+	}
+
+	private static void assertEqual(final List<TraceRecord> actual, final List<TraceRecord> expected) {
+		Assert.assertThat(actual.size(), IsEqual.equalTo(expected.size()));
+		for (int i = 0; i < expected.size(); ++i) {
+			final TraceRecord a = actual.get(i);
+			final TraceRecord e = expected.get(i);
+			Assert.assertThat(a.getStartNanos(), IsEqual.equalTo(e.getStartNanos()));
+			Assert.assertThat(a.getDurationNanos(), IsEqual.equalTo(e.getDurationNanos()));
+			Assert.assertThat(a.getMethod(), IsEqual.equalTo(e.getMethod()));
+			Assert.assertThat(a.getPath(), IsEqual.equalTo(e.getPath()));
+			Assert.assertThat(a.getQuery(), IsEqual.equalTo(e.getQuery()));
+			Assert.assertThat(a.getRequestPayload(), IsEqual.equalTo(e.getRequestPayload()));
+			Assert.assertThat(a.getRequestContentType(), IsEqual.equalTo(e.getRequestContentType()));
+			Assert.assertThat(a.getStatus(), IsEqual.equalTo(e.getStatus()));
+			Assert.assertThat(a.getContentType(), IsEqual.equalTo(e.getContentType()));
+			Assert.assertThat(a.getResponsePayload(), IsEqual.equalTo(e.getResponsePayload()));
+			Assert.assertThat(a.getError(), IsEqual.equalTo(e.getError()));
+		}
+	}
+}